@@ -5,6 +5,7 @@ plugins {
     alias(libs.plugins.lombok)
     jacoco
     alias(libs.plugins.spotless)
+    alias(libs.plugins.jmh)
 }
 
 group = "com.gadgetry"
@@ -25,11 +26,15 @@ dependencies {
     implementation(libs.spring.boot.starter.data.jpa)
     implementation(libs.spring.boot.starter.validation)
     implementation(libs.spring.boot.starter.actuator)
+    implementation(libs.spring.boot.starter.aop)
 
-    runtimeOnly(libs.postgresql)
+    implementation(libs.postgresql)
     implementation(libs.flyway.core)
     implementation(libs.flyway.database.postgresql)
 
+    implementation(libs.caffeine)
+    implementation(libs.jackson.dataformat.csv)
+
     implementation(libs.mapstruct)
     annotationProcessor(libs.mapstruct.processor)
 
@@ -47,9 +52,53 @@ tasks.withType<Test> {
     testLogging {
         events("passed", "skipped", "failed")
     }
+}
+
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("query-plan", "load-test")
+    }
     finalizedBy(tasks.jacocoTestReport)
 }
 
+val queryPlanTest by tasks.registering(Test::class) {
+    description = "Checks listing query plans against a large seeded catalog."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("query-plan")
+    }
+    systemProperty("gadgetry.query-plan.rows", System.getProperty("gadgetry.query-plan.rows", "1000000"))
+}
+
+// Micro-benchmarks for the request hot path: ./gradlew jmh
+// Results are written to build/results/jmh/results.json for comparison against a baseline run.
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+}
+
+val loadTest by tasks.registering(Test::class) {
+    description = "Runs a mixed workload against the server and reports latency percentiles."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("load-test")
+    }
+    // workload and server settings under comparison, e.g. -Dspring.threads.virtual.enabled=true
+    System.getProperties()
+        .filterKeys { it.toString().startsWith("gadgetry.load.") || it.toString().startsWith("spring.") }
+        .forEach { (key, value) -> systemProperty(key.toString(), value) }
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
+}
+
 jacoco {
     toolVersion = libs.versions.jacoco.get()
 }
@@ -0,0 +1,56 @@
+package com.gadgetry.api;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.api.dto.DeviceResponse;
+import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceState;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DeviceMapperBenchmark {
+
+    private DeviceMapper deviceMapper;
+    private DeviceCreateRequest request;
+    private Device device;
+
+    @Setup
+    public void setUp() {
+        deviceMapper = Mappers.getMapper(DeviceMapper.class);
+        request = new DeviceCreateRequest("iPhone 15 Pro", "Apple", DeviceState.AVAILABLE);
+        var now = Instant.now();
+        device =
+                Device.builder()
+                        .id(UUID.randomUUID())
+                        .displayName("iPhone 15 Pro")
+                        .displayBrand("Apple")
+                        .name("iphone 15 pro")
+                        .brand("apple")
+                        .state(DeviceState.AVAILABLE)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .version(3L)
+                        .build();
+    }
+
+    @Benchmark
+    public Device toEntity() {
+        return deviceMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public DeviceResponse toResponse() {
+        return deviceMapper.toResponse(device);
+    }
+}
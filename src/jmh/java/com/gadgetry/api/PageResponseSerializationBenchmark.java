@@ -0,0 +1,64 @@
+package com.gadgetry.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gadgetry.api.dto.DeviceResponse;
+import com.gadgetry.api.dto.PageResponse;
+import com.gadgetry.domain.model.DeviceState;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageResponseSerializationBenchmark {
+
+    @Param({"1", "20", "50"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private PageResponse<DeviceResponse> page;
+
+    @Setup
+    public void setUp() {
+        // the same defaults Spring Boot applies to the ObjectMapper behind the controllers
+        objectMapper =
+                Jackson2ObjectMapperBuilder.json()
+                        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .build();
+        var now = Instant.now();
+        var content =
+                IntStream.range(0, size)
+                        .mapToObj(
+                                i ->
+                                        new DeviceResponse(
+                                                UUID.randomUUID(),
+                                                "iPhone 15 Pro " + i,
+                                                "Apple",
+                                                DeviceState.AVAILABLE,
+                                                now,
+                                                now,
+                                                (long) i))
+                        .toList();
+        page = PageResponse.of(new PageImpl<>(content, PageRequest.of(0, size), 1000), null);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,89 @@
+package com.gadgetry.persistence;
+
+import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceFilter;
+import com.gadgetry.domain.model.DeviceState;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+// Covers the specification building DeviceService.findDevices does for every listing request,
+// down to the criteria query Hibernate is handed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DeviceSpecificationBenchmark {
+
+    @Param({"none", "state", "name", "name-brand-state", "fuzzy"})
+    private String shape;
+
+    private DeviceFilter filter;
+
+    private SessionFactory sessionFactory;
+
+    private CriteriaBuilder criteriaBuilder;
+
+    @Setup
+    public void setUp() {
+        filter =
+                switch (shape) {
+                    case "none" -> new DeviceFilter(null, null, null, false);
+                    case "state" -> new DeviceFilter(null, null, DeviceState.AVAILABLE, false);
+                    case "name" -> new DeviceFilter("iphone", null, null, false);
+                    case "name-brand-state" ->
+                            new DeviceFilter("iphone", "apple", DeviceState.IN_USE, false);
+                    case "fuzzy" -> new DeviceFilter("iphnoe", "aple", null, true);
+                    default -> throw new IllegalArgumentException("Unknown shape: " + shape);
+                };
+        // the mapping and the trigram functions only: queries are built, never run, so no
+        // connection is needed, and DeviceEntityListener (which Spring constructs) never fires
+        var registry =
+                new StandardServiceRegistryBuilder()
+                        .applySetting(AvailableSettings.DIALECT, PostgreSQLDialect.class.getName())
+                        .applySetting(AvailableSettings.ALLOW_METADATA_ON_BOOT, false)
+                        .applySetting(AvailableSettings.JPA_CALLBACKS_ENABLED, false)
+                        .build();
+        sessionFactory =
+                new MetadataSources(registry)
+                        .addAnnotatedClass(Device.class)
+                        .buildMetadata()
+                        .buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Device> matching() {
+        var spec = DeviceSpecification.matching(filter);
+        if (filter.hasSearchTerms()) {
+            spec = spec.and(DeviceSpecification.orderedBySimilarity(filter));
+        }
+        var query = criteriaBuilder.createQuery(Device.class);
+        var root = query.from(Device.class);
+        if (spec != null) {
+            var predicate = spec.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        return query;
+    }
+}
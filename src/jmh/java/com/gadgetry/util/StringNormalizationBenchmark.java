@@ -0,0 +1,25 @@
+package com.gadgetry.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StringNormalizationBenchmark {
+
+    // ASCII, Latin-1 with case folding, and mixed scripts outside Latin-1
+    @Param({"  iPhone 15 Pro Max  ", "  Ärger Gerät ÉÇ  ", "三星 Galaxy Ультра"})
+    private String value;
+
+    @Benchmark
+    public String normalize() {
+        return StringNormalizationUtil.normalize(value);
+    }
+}
@@ -0,0 +1,271 @@
+package com.gadgetry.api;
+
+import com.gadgetry.api.dto.DeviceChangeEvent;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.persistence.DeviceChangeNotification;
+import com.gadgetry.persistence.DeviceChangeStreamReset;
+import com.gadgetry.util.StringNormalizationUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Fans the notifications of the single LISTEN connection out to SSE subscribers. Event ids are
+// <stream>-<sequence>. The stream changes whenever notifications may have been missed (listener
+// reconnect, restart or another instance), so a client resumes only within its stream and gets a
+// reset event otherwise.
+@Component
+@Slf4j
+public class DeviceChangeFeed {
+
+    static final String RESET_EVENT = "reset";
+
+    private final int replaySize;
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final Counter overflows;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // guards stream, sequence and replay, and keeps replay and registration atomic
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Event> replay = new ArrayDeque<>();
+    private String stream = newStream();
+    private long sequence;
+
+    public DeviceChangeFeed(
+            MeterRegistry meterRegistry,
+            @Value("${gadgetry.change-feed.replay-size:10000}") int replaySize,
+            @Value("${gadgetry.change-feed.buffer-size:1000}") int bufferSize,
+            @Value("${gadgetry.change-feed.heartbeat:15s}") Duration heartbeat,
+            @Value("${gadgetry.change-feed.timeout:30m}") Duration timeout) {
+        this.replaySize = replaySize;
+        this.bufferSize = bufferSize;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.overflows =
+                Counter.builder("gadgetry.change-feed.overflows")
+                        .description("Subscribers disconnected because they fell too far behind")
+                        .register(meterRegistry);
+        Gauge.builder("gadgetry.change-feed.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String brand, DeviceState state, String lastEventId) {
+        var subscriber =
+                new Subscriber(
+                        new SseEmitter(timeout.toMillis()),
+                        StringNormalizationUtil.normalize(brand),
+                        state);
+        lock.lock();
+        try {
+            if (lastEventId != null) {
+                subscriber.backlog = missedSince(lastEventId, subscriber);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        subscriber.start();
+        return subscriber.emitter;
+    }
+
+    @EventListener
+    public void onDeviceChange(DeviceChangeNotification notification) {
+        lock.lock();
+        try {
+            var event = new Event(stream, ++sequence, notification.brand(), toEvent(notification));
+            replay.addLast(event);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (var subscriber : subscribers) {
+                if (subscriber.matches(event) && !subscriber.queue.offer(event)) {
+                    overflow(subscriber);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onStreamReset(DeviceChangeStreamReset reset) {
+        lock.lock();
+        try {
+            stream = newStream();
+            sequence = 0;
+            replay.clear();
+            var event = resetEvent();
+            for (var subscriber : subscribers) {
+                subscriber.queue.clear();
+                subscriber.queue.offer(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Event> missedSince(String lastEventId, Subscriber subscriber) {
+        var separator = lastEventId.lastIndexOf('-');
+        var lastSequence = sequenceOf(lastEventId.substring(separator + 1));
+        var oldest = replay.isEmpty() ? sequence + 1 : replay.getFirst().sequence();
+        if (separator < 0
+                || lastSequence < 0
+                || !stream.equals(lastEventId.substring(0, separator))
+                || lastSequence < oldest - 1
+                || lastSequence > sequence) {
+            return List.of(resetEvent());
+        }
+        return replay.stream()
+                .filter(event -> event.sequence() > lastSequence)
+                .filter(subscriber::matches)
+                .toList();
+    }
+
+    private void overflow(Subscriber subscriber) {
+        // the client reconnects with its last event id and catches up from the replay buffer
+        log.info("Disconnecting change feed subscriber that fell {} events behind", bufferSize);
+        overflows.increment();
+        subscriber.overflowed = true;
+        subscriber.close();
+    }
+
+    private Event resetEvent() {
+        // carries the current position, so that the client resumes from here after reloading
+        return new Event(stream, sequence, null, null);
+    }
+
+    private static long sequenceOf(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private static DeviceChangeEvent toEvent(DeviceChangeNotification notification) {
+        DeviceChangeEvent.Type type;
+        if (notification.deleted()) {
+            type = DeviceChangeEvent.Type.DELETED;
+        } else if ("INSERT".equals(notification.operation())) {
+            type = DeviceChangeEvent.Type.CREATED;
+        } else {
+            type = DeviceChangeEvent.Type.UPDATED;
+        }
+        return new DeviceChangeEvent(
+                type,
+                notification.id(),
+                notification.version(),
+                notification.displayName(),
+                notification.displayBrand(),
+                notification.state());
+    }
+
+    private static String newStream() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+    }
+
+    private record Event(String stream, long sequence, String brand, DeviceChangeEvent change) {
+
+        SseEmitter.SseEventBuilder toSse() {
+            var builder = SseEmitter.event().id(stream + "-" + sequence);
+            if (change == null) {
+                // EventSource ignores events without data
+                return builder.name(RESET_EVENT).data("reload");
+            }
+            return builder.name(change.type().name().toLowerCase(Locale.ROOT))
+                    .data(change, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String brand;
+        private final DeviceState state;
+        // live events; the replayed backlog is sent first and is not bounded by it
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        private List<Event> backlog = List.of();
+        private volatile boolean closed;
+        private volatile boolean overflowed;
+
+        Subscriber(SseEmitter emitter, String brand, DeviceState state) {
+            this.emitter = emitter;
+            this.brand = brand;
+            this.state = state;
+        }
+
+        void start() {
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(ex -> close());
+            // sends block on slow clients, so each subscriber writes from its own thread
+            Thread.ofVirtual().name("device-change-feed").start(this::drain);
+        }
+
+        boolean matches(Event event) {
+            if (event.change() == null) {
+                return true;
+            }
+            return (state == null || state == event.change().state())
+                    && (brand == null || (event.brand() != null && event.brand().contains(brand)));
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            // wakes the sender up
+            queue.clear();
+            queue.offer(new Event(null, 0, null, null));
+        }
+
+        private void drain() {
+            try {
+                for (var event : backlog) {
+                    emitter.send(event.toSse());
+                }
+                backlog = List.of();
+                while (!closed) {
+                    var event = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (closed) {
+                        break;
+                    }
+                    // a heartbeat also surfaces connections that went away silently
+                    emitter.send(
+                            event != null
+                                    ? event.toSse()
+                                    : SseEmitter.event().comment("keepalive"));
+                }
+            } catch (IOException ex) {
+                // the container reports the broken connection through onError
+                log.debug("Change feed subscriber went away", ex);
+                close();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                close();
+            }
+            if (overflowed) {
+                emitter.complete();
+            }
+        }
+    }
+}
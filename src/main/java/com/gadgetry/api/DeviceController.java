@@ -1,25 +1,50 @@
 package com.gadgetry.api;
 
+import com.gadgetry.api.dto.DeviceBatchItemResult;
+import com.gadgetry.api.dto.DeviceBatchResponse;
+import com.gadgetry.api.dto.DeviceBulkOperationRequest;
 import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.api.dto.DeviceImportResponse;
 import com.gadgetry.api.dto.DeviceResponse;
+import com.gadgetry.api.dto.DeviceStatsResponse;
 import com.gadgetry.api.dto.DeviceUpdateRequest;
 import com.gadgetry.api.dto.PageResponse;
+import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceFilter;
 import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.domain.service.CountMode;
+import com.gadgetry.domain.service.DeviceBatchService;
+import com.gadgetry.domain.service.DeviceFacet;
 import com.gadgetry.domain.service.DeviceService;
+import com.gadgetry.persistence.DeviceCursor;
+import com.gadgetry.util.StringNormalizationUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -29,8 +54,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/devices")
@@ -41,9 +69,18 @@ public class DeviceController {
 
     private static final Set<String> ALLOWED_SORT_FIELDS =
             Set.of("createdAt", "updatedAt", "name", "brand", "state");
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String DEFAULT_SORT = "createdAt,desc";
+    private static final String RELEVANCE_SORT = "relevance";
 
     private final DeviceService deviceService;
     private final DeviceMapper deviceMapper;
+    private final DeviceResponseCache deviceResponseCache;
+    private final DeviceBatchService deviceBatchService;
+    private final Validator validator;
+    private final DeviceExporter deviceExporter;
+    private final DeviceImporter deviceImporter;
+    private final DeviceChangeFeed deviceChangeFeed;
 
     @PostMapping
     @Operation(
@@ -58,20 +95,176 @@ public class DeviceController {
     public ResponseEntity<DeviceResponse> create(@Valid @RequestBody DeviceCreateRequest request) {
         var createdDevice = deviceService.create(deviceMapper.toEntity(request));
         return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(DeviceETag.of(createdDevice.getVersion()))
                 .body(deviceMapper.toResponse(createdDevice));
     }
 
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create devices in bulk",
+            description =
+                    "Validates every item on its own and inserts the valid ones in one batched"
+                            + " transaction. Invalid items are reported without failing the batch")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Per-item results"),
+                @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+            })
+    public ResponseEntity<DeviceBatchResponse> createBatch(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<DeviceCreateRequest> requests) {
+        var results = new DeviceBatchItemResult[requests.size()];
+        var indexes = new ArrayList<Integer>();
+        var devices = new ArrayList<Device>();
+        for (var i = 0; i < requests.size(); i++) {
+            var errors = validate(requests.get(i));
+            if (errors.isEmpty()) {
+                indexes.add(i);
+                devices.add(deviceMapper.toEntity(requests.get(i)));
+            } else {
+                results[i] =
+                        new DeviceBatchItemResult(i, HttpStatus.BAD_REQUEST.value(), null, errors);
+            }
+        }
+
+        var outcomes = deviceBatchService.createAll(devices);
+        for (var j = 0; j < outcomes.size(); j++) {
+            var index = indexes.get(j);
+            var outcome = outcomes.get(j);
+            results[index] =
+                    outcome.device() != null
+                            ? new DeviceBatchItemResult(
+                                    index,
+                                    HttpStatus.CREATED.value(),
+                                    deviceMapper.toResponse(outcome.device()),
+                                    null)
+                            : new DeviceBatchItemResult(
+                                    index,
+                                    HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                                    null,
+                                    Map.of("device", outcome.error()));
+        }
+        return ResponseEntity.ok(DeviceBatchResponse.of(List.of(results)));
+    }
+
+    @PostMapping("/bulk")
+    @Operation(
+            summary = "Change state of or delete devices in bulk",
+            description =
+                    "Applies every operation with set-based statements in one transaction. Items"
+                            + " whose device is missing, in use or at another version are reported"
+                            + " without failing the others")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Per-item results"),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Empty, oversized or malformed batch, or duplicate ids")
+            })
+    public ResponseEntity<DeviceBatchResponse> bulk(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                    List<@Valid DeviceBulkOperationRequest> requests) {
+        var commands = requests.stream().map(deviceMapper::toCommand).toList();
+        var outcomes = deviceBatchService.apply(commands);
+        var results = new ArrayList<DeviceBatchItemResult>();
+        for (var i = 0; i < outcomes.size(); i++) {
+            var outcome = outcomes.get(i);
+            deviceResponseCache.evict(commands.get(i).id());
+            results.add(
+                    outcome.device() != null
+                            ? new DeviceBatchItemResult(
+                                    i,
+                                    HttpStatus.OK.value(),
+                                    deviceMapper.toResponse(outcome.device()),
+                                    null)
+                            : new DeviceBatchItemResult(
+                                    i,
+                                    statusOf(outcome.failure()),
+                                    null,
+                                    Map.of("device", outcome.error())));
+        }
+        return ResponseEntity.ok(DeviceBatchResponse.of(results));
+    }
+
+    private static int statusOf(DeviceBatchService.Failure failure) {
+        return switch (failure) {
+            case INVALID -> HttpStatus.UNPROCESSABLE_ENTITY.value();
+            case NOT_FOUND -> HttpStatus.NOT_FOUND.value();
+            case CONFLICT -> HttpStatus.CONFLICT.value();
+        };
+    }
+
+    @PostMapping(
+            value = "/import",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    @Operation(
+            summary = "Import devices",
+            description =
+                    "Streams an NDJSON or CSV file (fields id, displayName, displayBrand, state)"
+                            + " into the catalog in one transaction. Rows with an id update that"
+                            + " device, rows without one create a device. Invalid rows are"
+                            + " reported without aborting the import")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Import summary"),
+                @ApiResponse(responseCode = "400", description = "Malformed CSV file")
+            })
+    public ResponseEntity<DeviceImportResponse> importDevices(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body)
+            throws IOException {
+        var result = deviceImporter.importDevices(body, DeviceFileFormat.from(contentType));
+        return ResponseEntity.ok(deviceMapper.toResponse(result));
+    }
+
+    private Map<String, String> validate(DeviceCreateRequest request) {
+        if (request == null) {
+            return Map.of("device", "Item is required");
+        }
+        Map<String, String> errors = new HashMap<>();
+        validator
+                .validate(request)
+                .forEach(
+                        violation ->
+                                errors.put(
+                                        violation.getPropertyPath().toString(),
+                                        violation.getMessage()));
+        return errors;
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Get device by ID",
-            description = "Retrieves a device by its unique identifier")
+            description =
+                    "Retrieves a device by its unique identifier. The ETag is the device version;"
+                            + " send it back in If-None-Match to get 304 while it is unchanged")
     @ApiResponses(
             value = {
                 @ApiResponse(responseCode = "200", description = "Device found"),
+                @ApiResponse(responseCode = "304", description = "Device not modified"),
                 @ApiResponse(responseCode = "404", description = "Device not found")
             })
-    public ResponseEntity<DeviceResponse> getById(@PathVariable UUID id) {
-        return ResponseEntity.ok(deviceMapper.toResponse(deviceService.findById(id)));
+    public ResponseEntity<DeviceResponse> getById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                    String ifNoneMatch) {
+        // answer revalidation from the version alone, without loading or serializing the device
+        if (ifNoneMatch != null) {
+            var version = currentVersion(id);
+            if (DeviceETag.matchesAny(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(DeviceETag.of(version))
+                        .build();
+            }
+        }
+        var response =
+                deviceResponseCache.get(
+                        id, deviceId -> deviceService.findById(deviceId, DeviceResponse.class));
+        return ResponseEntity.ok().eTag(DeviceETag.of(response.version())).body(response);
+    }
+
+    private long currentVersion(UUID id) {
+        // a cached entry is kept current by change notifications, so its version is as good
+        var cached = deviceResponseCache.getIfPresent(id);
+        return cached != null ? cached.version() : deviceService.findVersion(id);
     }
 
     @GetMapping
@@ -93,6 +286,9 @@ public class DeviceController {
                     String brand,
             @Parameter(description = "Filter by device state") @RequestParam(required = false)
                     DeviceState state,
+            @Parameter(description = "Also match name and brand with typos (trigram similarity)")
+                    @RequestParam(defaultValue = "false")
+                    boolean fuzzy,
             @Parameter(description = "Page number (0-indexed)")
                     @RequestParam(defaultValue = "0")
                     @Min(0)
@@ -102,19 +298,150 @@ public class DeviceController {
                     @Min(1)
                     @Max(50)
                     int size,
-            @Parameter(description = "Sort field and direction (e.g., 'createdAt,desc')")
-                    @RequestParam(defaultValue = "createdAt,desc")
-                    String sort) {
-        var sortParams = sort.split(",");
-        var sortField = sortParams[0];
-        var pageable = buildPageReq(page, size, sortField, sortParams);
-        var devicePage = deviceService.findDevices(name, brand, state, pageable);
-        var responsePage = devicePage.map(deviceMapper::toResponse);
-        return ResponseEntity.ok(PageResponse.of(responsePage));
+            @Parameter(
+                            description =
+                                    "Sort field and direction (e.g., 'createdAt,desc'), or"
+                                            + " 'relevance' to rank name/brand matches by"
+                                            + " similarity. Defaults to relevance when searching"
+                                            + " by name or brand, otherwise to 'createdAt,desc'")
+                    @RequestParam(required = false)
+                    String sort,
+            @Parameter(
+                            description =
+                                    "Opaque keyset cursor taken from a previous response's"
+                                            + " nextCursor. Replaces page and sort")
+                    @RequestParam(required = false)
+                    String cursor,
+            @Parameter(
+                            description =
+                                    "Total count strategy: exact (default), estimate (cached"
+                                            + " per filter) or none (has-next flag only, the"
+                                            + " only mode allowed with a cursor)")
+                    @RequestParam(required = false)
+                    String count,
+            @Parameter(
+                            description =
+                                    "Comma-separated counts to return over all matching devices:"
+                                            + " state, brand (top brands only). Not available"
+                                            + " with a cursor")
+                    @RequestParam(required = false)
+                    List<String> facets) {
+        var filter = new DeviceFilter(name, brand, state, fuzzy);
+        var facetSet = facets != null ? DeviceFacet.fromAll(facets) : Set.<DeviceFacet>of();
+        if (cursor != null) {
+            if (page != 0) {
+                throw new IllegalArgumentException("Parameters page and cursor are exclusive");
+            }
+            if (!facetSet.isEmpty()) {
+                throw new IllegalArgumentException("Facets are only returned with the first page");
+            }
+            if (count != null && CountMode.from(count) != CountMode.NONE) {
+                throw new IllegalArgumentException("Cursor pagination only supports count=none");
+            }
+            var deviceSlice =
+                    deviceService.findDevicesAfter(
+                            filter, DeviceCursor.decode(cursor), size, DeviceResponse.class);
+            return ResponseEntity.ok(PageResponse.of(deviceSlice, nextCursor(deviceSlice)));
+        }
+
+        var pageable = buildPageReq(page, size, sort, filter);
+        var countMode = count != null ? CountMode.from(count) : CountMode.EXACT;
+        var result =
+                deviceService.findDevices(
+                        filter, pageable, countMode, facetSet, DeviceResponse.class);
+        var deviceSlice = result.devices();
+        return ResponseEntity.ok(
+                PageResponse.of(
+                        deviceSlice,
+                        nextCursor(deviceSlice),
+                        deviceMapper.toResponse(result.facets())));
     }
 
-    private static PageRequest buildPageReq(
-            int page, int size, String sortField, String[] sortParams) {
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream device changes",
+            description =
+                    "Pushes a created, updated or deleted event for every device change as"
+                            + " server-sent events. Reconnect with Last-Event-ID to resume; a"
+                            + " reset event means changes were missed and the client should reload")
+    @ApiResponses(
+            value = {@ApiResponse(responseCode = "200", description = "Change events streamed")})
+    public SseEmitter changes(
+            @Parameter(description = "Only changes of this brand (case-insensitive partial match)")
+                    @RequestParam(required = false)
+                    String brand,
+            @Parameter(description = "Only changes leaving the device in this state")
+                    @RequestParam(required = false)
+                    DeviceState state,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return deviceChangeFeed.subscribe(brand, state, lastEventId);
+    }
+
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Get device counts",
+            description =
+                    "Counts devices in total, per state and per brand. The counts are kept"
+                            + " current by every write, so the response time does not depend on"
+                            + " the size of the catalog")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Counts returned")})
+    public ResponseEntity<DeviceStatsResponse> getStats() {
+        return ResponseEntity.ok(deviceMapper.toResponse(deviceService.findStats()));
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export devices",
+            description =
+                    "Streams every device matching the filters as NDJSON or CSV, without the"
+                            + " page size limit")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Devices streamed"),
+                @ApiResponse(responseCode = "400", description = "Invalid file format")
+            })
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Filter by device name (case-insensitive partial match)")
+                    @RequestParam(required = false)
+                    String name,
+            @Parameter(description = "Filter by device brand (case-insensitive partial match)")
+                    @RequestParam(required = false)
+                    String brand,
+            @Parameter(description = "Filter by device state") @RequestParam(required = false)
+                    DeviceState state,
+            @Parameter(description = "Also match name and brand with typos (trigram similarity)")
+                    @RequestParam(defaultValue = "false")
+                    boolean fuzzy,
+            @Parameter(description = "Output format: ndjson (default) or csv")
+                    @RequestParam(defaultValue = "ndjson")
+                    String format) {
+        var fileFormat = DeviceFileFormat.from(format);
+        var filter = new DeviceFilter(name, brand, state, fuzzy);
+        return ResponseEntity.ok()
+                .contentType(fileFormat.mediaType())
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment()
+                                .filename(fileFormat.fileName())
+                                .build()
+                                .toString())
+                .body(deviceExporter.export(filter, fileFormat));
+    }
+
+    private static PageRequest buildPageReq(int page, int size, String sort, DeviceFilter filter) {
+        if (sort == null) {
+            sort = filter.hasSearchTerms() ? RELEVANCE_SORT : DEFAULT_SORT;
+        }
+        var sortParams = sort.split(",");
+        var sortField = sortParams[0];
+        if (RELEVANCE_SORT.equals(sortField)) {
+            if (!filter.hasSearchTerms()) {
+                throw new IllegalArgumentException(
+                        "Sorting by relevance requires a name or brand filter");
+            }
+            // left unsorted so the service ranks by similarity to the search terms
+            return PageRequest.of(page, size);
+        }
         if (!ALLOWED_SORT_FIELDS.contains(sortField)) {
             throw new IllegalArgumentException(
                     String.format(
@@ -127,14 +454,45 @@ public class DeviceController {
                         ? Sort.Direction.ASC
                         : Sort.Direction.DESC;
 
-        var pageable = PageRequest.of(page, size, Sort.by(direction, sortField));
+        // id breaks ties so that offset pages and keyset cursors see the same order
+        var pageable =
+                PageRequest.of(
+                        page, size, Sort.by(direction, sortField).and(Sort.by(direction, "id")));
         return pageable;
     }
 
+    private static String nextCursor(Slice<DeviceResponse> slice) {
+        if (!slice.hasNext() || !slice.hasContent() || slice.getSort().isUnsorted()) {
+            return null;
+        }
+        var order = slice.getSort().iterator().next();
+        var last = slice.getContent().get(slice.getNumberOfElements() - 1);
+        return new DeviceCursor(
+                        order.getProperty(),
+                        order.getDirection(),
+                        sortValue(last, order.getProperty()),
+                        last.id())
+                .encode();
+    }
+
+    private static Comparable<?> sortValue(DeviceResponse device, String sortField) {
+        return switch (sortField) {
+            case "createdAt" -> device.createdAt();
+            case "updatedAt" -> device.updatedAt();
+            // the sortable name and brand columns hold the normalized display values
+            case "name" -> StringNormalizationUtil.normalize(device.displayName());
+            case "brand" -> StringNormalizationUtil.normalize(device.displayBrand());
+            case "state" -> device.state();
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        };
+    }
+
     @PatchMapping("/{id}")
     @Operation(
             summary = "Update device",
-            description = "Partially updates a device (only provided fields are updated)")
+            description =
+                    "Partially updates a device (only provided fields are updated). With"
+                            + " If-Match, the update only applies to that version of the device")
     @ApiResponses(
             value = {
                 @ApiResponse(responseCode = "200", description = "Device updated successfully"),
@@ -142,26 +500,112 @@ public class DeviceController {
                 @ApiResponse(
                         responseCode = "409",
                         description = "Device in use or optimistic lock conflict"),
+                @ApiResponse(responseCode = "412", description = "Device version does not match"),
                 @ApiResponse(responseCode = "422", description = "Invalid state transition")
             })
     public ResponseEntity<DeviceResponse> update(
-            @PathVariable UUID id, @Valid @RequestBody DeviceUpdateRequest request) {
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody DeviceUpdateRequest request) {
         var updatedDevice = deviceMapper.toEntity(request);
-        return ResponseEntity.ok(deviceMapper.toResponse(deviceService.update(id, updatedDevice)));
+        var response =
+                deviceMapper.toResponse(
+                        deviceService.update(
+                                id, updatedDevice, DeviceETag.requiredVersion(ifMatch)));
+        deviceResponseCache.put(response);
+        return ResponseEntity.ok().eTag(DeviceETag.of(response.version())).body(response);
+    }
+
+    @PostMapping("/{id}/checkout")
+    @Operation(
+            summary = "Check out device",
+            description =
+                    "Moves an available device to IN_USE in one conditional update. Of several"
+                            + " concurrent callers exactly one succeeds")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Device checked out"),
+                @ApiResponse(responseCode = "404", description = "Device not found"),
+                @ApiResponse(responseCode = "409", description = "Device is already in use"),
+                @ApiResponse(responseCode = "422", description = "Device is inactive")
+            })
+    public ResponseEntity<DeviceResponse> checkout(@PathVariable UUID id) {
+        var response = deviceMapper.toResponse(deviceService.checkout(id));
+        deviceResponseCache.put(response);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{id}/checkin")
+    @Operation(
+            summary = "Check in device",
+            description = "Moves a device in use back to AVAILABLE in one conditional update")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Device checked in"),
+                @ApiResponse(responseCode = "404", description = "Device not found"),
+                @ApiResponse(responseCode = "422", description = "Device is not in use")
+            })
+    public ResponseEntity<DeviceResponse> checkin(@PathVariable UUID id) {
+        var response = deviceMapper.toResponse(deviceService.checkin(id));
+        deviceResponseCache.put(response);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/allocate")
+    @Operation(
+            summary = "Allocate available devices",
+            description =
+                    "Checks out up to count available devices matching the filter. Devices claimed"
+                            + " by a concurrent allocation are skipped rather than waited on, so"
+                            + " fewer devices than requested may be returned")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Allocated devices, may be empty"),
+                @ApiResponse(responseCode = "400", description = "Invalid count")
+            })
+    public ResponseEntity<List<DeviceResponse>> allocate(
+            @Parameter(description = "Filter by device name (case-insensitive partial match)")
+                    @RequestParam(required = false)
+                    String name,
+            @Parameter(description = "Filter by device brand (case-insensitive partial match)")
+                    @RequestParam(required = false)
+                    String brand,
+            @Parameter(description = "Also match name and brand with typos (trigram similarity)")
+                    @RequestParam(defaultValue = "false")
+                    boolean fuzzy,
+            @Parameter(description = "Number of devices to allocate (max 50)")
+                    @RequestParam(defaultValue = "1")
+                    @Min(1)
+                    @Max(50)
+                    int count) {
+        var filter = new DeviceFilter(name, brand, null, fuzzy);
+        var responses =
+                deviceService.allocate(filter, count).stream()
+                        .map(deviceMapper::toResponse)
+                        .toList();
+        responses.forEach(deviceResponseCache::put);
+        return ResponseEntity.ok(responses);
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete device", description = "Deletes a device")
+    @Operation(
+            summary = "Delete device",
+            description =
+                    "Deletes a device. With If-Match, only that version of the device is deleted")
     @ApiResponses(
             value = {
                 @ApiResponse(responseCode = "204", description = "Device deleted successfully"),
                 @ApiResponse(responseCode = "404", description = "Device not found"),
                 @ApiResponse(
                         responseCode = "409",
-                        description = "Device is in use and cannot be deleted")
+                        description = "Device is in use and cannot be deleted"),
+                @ApiResponse(responseCode = "412", description = "Device version does not match")
             })
-    public ResponseEntity<Void> delete(@PathVariable UUID id) {
-        deviceService.delete(id);
+    public ResponseEntity<Void> delete(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        deviceService.delete(id, DeviceETag.requiredVersion(ifMatch));
+        deviceResponseCache.evict(id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,50 @@
+package com.gadgetry.api;
+
+import java.util.regex.Pattern;
+
+// Device ETags are the quoted entity version, so a tag can be checked against the version column
+// alone, without loading the device.
+final class DeviceETag {
+
+    private static final Pattern STRONG_TAG = Pattern.compile("\"(\\d+)\"");
+
+    private DeviceETag() {
+        // prevent instantiation for util class
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // If-None-Match uses weak comparison
+    static boolean matchesAny(String ifNoneMatch, long version) {
+        var current = of(version);
+        for (var tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || tag.equals(current) || tag.equals("W/" + current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the version an If-Match header requires, or null when any version will do
+    static Long requiredVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        var tag = ifMatch.trim();
+        if (tag.contains(",")) {
+            throw new IllegalArgumentException("If-Match must name a single device ETag");
+        }
+        var matcher = STRONG_TAG.matcher(tag);
+        if (matcher.matches()) {
+            return Long.parseLong(matcher.group(1));
+        }
+        if (tag.startsWith("W/")) {
+            // If-Match uses strong comparison, so a weak tag can never match
+            return -1L;
+        }
+        throw new IllegalArgumentException("Malformed If-Match header: " + ifMatch);
+    }
+}
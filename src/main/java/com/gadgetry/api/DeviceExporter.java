@@ -0,0 +1,100 @@
+package com.gadgetry.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gadgetry.api.dto.DeviceResponse;
+import com.gadgetry.domain.model.DeviceFilter;
+import com.gadgetry.domain.service.DeviceService;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Writes each device as soon as it comes off the database cursor, so neither the export nor the
+// response buffers more than a fetch worth of rows.
+@Component
+@RequiredArgsConstructor
+public class DeviceExporter {
+
+    private static final String CSV_HEADER =
+            "id,displayName,displayBrand,state,createdAt,updatedAt,version";
+
+    private final DeviceService deviceService;
+    private final DeviceMapper deviceMapper;
+    private final ObjectMapper objectMapper;
+
+    public StreamingResponseBody export(DeviceFilter filter, DeviceFileFormat format) {
+        return outputStream -> {
+            var writer =
+                    new BufferedWriter(
+                            new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try {
+                if (format == DeviceFileFormat.CSV) {
+                    writeLine(writer, CSV_HEADER);
+                }
+                deviceService.exportDevices(
+                        filter,
+                        device -> {
+                            var response = deviceMapper.toResponse(device);
+                            var line =
+                                    format == DeviceFileFormat.CSV
+                                            ? toCsv(response)
+                                            : toJson(response);
+                            writeLine(writer, line);
+                        });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            writer.flush();
+        };
+    }
+
+    private String toJson(DeviceResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize device: " + response.id(), ex);
+        }
+    }
+
+    private static String toCsv(DeviceResponse response) {
+        return Stream.of(
+                        response.id(),
+                        response.displayName(),
+                        response.displayBrand(),
+                        response.state(),
+                        response.createdAt(),
+                        response.updatedAt(),
+                        response.version())
+                .map(value -> escapeCsv(Objects.toString(value, "")))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.contains(",")
+                || value.contains("\"")
+                || value.contains("\n")
+                || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException ex) {
+            // the client went away; unwinding stops the cursor and ends the transaction
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
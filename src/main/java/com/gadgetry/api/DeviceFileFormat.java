@@ -0,0 +1,47 @@
+package com.gadgetry.api;
+
+import java.util.Arrays;
+import org.springframework.http.MediaType;
+
+public enum DeviceFileFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    DeviceFileFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String fileName() {
+        return "devices." + extension;
+    }
+
+    public static DeviceFileFormat from(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(
+                        () ->
+                                new IllegalArgumentException(
+                                        String.format(
+                                                "Invalid file format: %s. Allowed formats: %s",
+                                                value, Arrays.toString(values()))));
+    }
+
+    public static DeviceFileFormat from(MediaType mediaType) {
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(mediaType))
+                .findFirst()
+                .orElseThrow(
+                        () ->
+                                new IllegalArgumentException(
+                                        "Unsupported media type: " + mediaType));
+    }
+}
@@ -0,0 +1,169 @@
+package com.gadgetry.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceImportResult;
+import com.gadgetry.domain.model.DeviceImportRow;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.domain.service.DeviceImportService;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Parses an import file lazily, one record at a time, and validates each record with the same
+// constraints as a single create. Records that fail are handed on as rejections, not errors.
+@Component
+@RequiredArgsConstructor
+public class DeviceImporter {
+
+    private static final ObjectReader CSV_READER =
+            new CsvMapper()
+                    .readerForMapOf(String.class)
+                    .with(CsvSchema.emptySchema().withHeader());
+
+    private final DeviceImportService deviceImportService;
+    private final DeviceMapper deviceMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public DeviceImportResult importDevices(InputStream inputStream, DeviceFileFormat format)
+            throws IOException {
+        try (var rows =
+                format == DeviceFileFormat.CSV ? readCsv(inputStream) : readNdjson(inputStream)) {
+            return deviceImportService.importDevices(rows);
+        }
+    }
+
+    private Stream<DeviceImportRow> readNdjson(InputStream inputStream) {
+        var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        var row = new AtomicLong();
+        return reader.lines()
+                .filter(line -> !line.isBlank())
+                .map(line -> fromJson(row.incrementAndGet(), line));
+    }
+
+    private Stream<DeviceImportRow> readCsv(InputStream inputStream) throws IOException {
+        Iterator<Map<String, String>> records = CSV_READER.readValues(inputStream);
+        var row = new AtomicLong();
+        var iterator =
+                new Iterator<DeviceImportRow>() {
+                    @Override
+                    public boolean hasNext() {
+                        try {
+                            return records.hasNext();
+                        } catch (RuntimeException ex) {
+                            // the csv parser cannot resynchronize, so this ends the import
+                            throw malformedCsv(row.get(), ex);
+                        }
+                    }
+
+                    @Override
+                    public DeviceImportRow next() {
+                        Map<String, String> fields;
+                        try {
+                            fields = records.next();
+                        } catch (RuntimeException ex) {
+                            throw malformedCsv(row.get(), ex);
+                        }
+                        return toRow(
+                                row.incrementAndGet(),
+                                fields.get("id"),
+                                fields.get("displayName"),
+                                fields.get("displayBrand"),
+                                fields.get("state"));
+                    }
+                };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
+    private static IllegalArgumentException malformedCsv(long row, Exception cause) {
+        return new IllegalArgumentException("Malformed CSV after row " + row, cause);
+    }
+
+    private DeviceImportRow fromJson(long row, String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException ex) {
+            return DeviceImportRow.rejected(row, "Malformed JSON");
+        }
+        if (!node.isObject()) {
+            return DeviceImportRow.rejected(row, "Malformed JSON");
+        }
+        return toRow(
+                row,
+                text(node, "id"),
+                text(node, "displayName"),
+                text(node, "displayBrand"),
+                text(node, "state"));
+    }
+
+    private static String text(JsonNode node, String field) {
+        var value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private DeviceImportRow toRow(
+            long row, String id, String displayName, String displayBrand, String state) {
+        UUID deviceId = null;
+        if (id != null && !id.isBlank()) {
+            try {
+                deviceId = UUID.fromString(id.trim());
+            } catch (IllegalArgumentException ex) {
+                return DeviceImportRow.rejected(row, "Invalid id: " + id);
+            }
+        }
+        DeviceState deviceState = null;
+        if (state != null && !state.isBlank()) {
+            try {
+                deviceState = DeviceState.valueOf(state.trim().toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                return DeviceImportRow.rejected(row, "Invalid state: " + state);
+            }
+        }
+
+        var request = new DeviceCreateRequest(displayName, displayBrand, deviceState);
+        var violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            // sorted so that the same record always yields the same message
+            var errors =
+                    violations.stream()
+                            .collect(
+                                    Collectors.toMap(
+                                            violation -> violation.getPropertyPath().toString(),
+                                            violation -> violation.getMessage(),
+                                            (first, second) -> first + ", " + second,
+                                            TreeMap::new));
+            return DeviceImportRow.rejected(
+                    row,
+                    errors.entrySet().stream()
+                            .map(entry -> entry.getKey() + ": " + entry.getValue())
+                            .collect(Collectors.joining("; ")));
+        }
+
+        var device = deviceMapper.toEntity(request);
+        device.setId(deviceId);
+        return DeviceImportRow.accepted(row, device);
+    }
+}
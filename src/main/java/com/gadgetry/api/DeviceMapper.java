@@ -1,9 +1,17 @@
 package com.gadgetry.api;
 
+import com.gadgetry.api.dto.DeviceBulkOperationRequest;
 import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.api.dto.DeviceFacetsResponse;
+import com.gadgetry.api.dto.DeviceImportResponse;
 import com.gadgetry.api.dto.DeviceResponse;
+import com.gadgetry.api.dto.DeviceStatsResponse;
 import com.gadgetry.api.dto.DeviceUpdateRequest;
 import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceBulkCommand;
+import com.gadgetry.domain.model.DeviceFacets;
+import com.gadgetry.domain.model.DeviceImportResult;
+import com.gadgetry.domain.model.DeviceStats;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
@@ -29,5 +37,16 @@ public interface DeviceMapper {
     @Mapping(target = "version", ignore = true)
     Device toEntity(DeviceUpdateRequest request);
 
+    @Mapping(target = "operation", source = "op")
+    DeviceBulkCommand toCommand(DeviceBulkOperationRequest request);
+
     DeviceResponse toResponse(Device device);
+
+    DeviceImportResponse toResponse(DeviceImportResult result);
+
+    DeviceImportResponse.Rejection toResponse(DeviceImportResult.Rejection rejection);
+
+    DeviceStatsResponse toResponse(DeviceStats stats);
+
+    DeviceFacetsResponse toResponse(DeviceFacets facets);
 }
@@ -0,0 +1,131 @@
+package com.gadgetry.api;
+
+import com.gadgetry.api.dto.DeviceResponse;
+import com.gadgetry.persistence.DeviceChangeNotification;
+import com.gadgetry.persistence.DeviceChangeStreamReset;
+import com.gadgetry.persistence.ReadRouting;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DeviceResponseCache {
+
+    private static final String CACHE_NAME = "devices";
+
+    private final AsyncCache<UUID, DeviceResponse> cache;
+    private final Counter invalidations;
+
+    public DeviceResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${gadgetry.device-cache.maximum-size:10000}") long maximumSize,
+            @Value("${gadgetry.device-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        // expiry only bounds the damage of a missed notification; invalidation keeps entries fresh
+        this.cache =
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(expireAfterWrite)
+                        .recordStats()
+                        .buildAsync();
+        this.invalidations =
+                Counter.builder("gadgetry.device.cache.invalidations")
+                        .description("Entries dropped because the device changed")
+                        .tag("cache", CACHE_NAME)
+                        .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public DeviceResponse get(UUID id, Function<UUID, DeviceResponse> loader) {
+        // callers for the same device share one in-flight future, loaded by the caller that put
+        // it there rather than inside the cache's compute, so waiting does not pin a virtual
+        // thread's carrier. Invalidations come from the primary, so entries are loaded there too:
+        // a lagging replica could return the version just invalidated
+        var loading = new CompletableFuture<DeviceResponse>();
+        var future = cache.get(id, (key, executor) -> loading);
+        if (future != loading) {
+            return join(future);
+        }
+        try {
+            var device = ReadRouting.onPrimary(() -> loader.apply(id));
+            loading.complete(device);
+            return device;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public DeviceResponse getIfPresent(UUID id) {
+        var future = cache.getIfPresent(id);
+        return future != null ? valueOf(future) : null;
+    }
+
+    public void put(DeviceResponse device) {
+        cache.asMap()
+                .merge(
+                        device.id(),
+                        CompletableFuture.completedFuture(device),
+                        DeviceResponseCache::newer);
+    }
+
+    public void evict(UUID id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    @EventListener
+    public void onDeviceChange(DeviceChangeNotification notification) {
+        // a load still in flight may have read the version just replaced, so it is dropped too;
+        // its callers get what it read, but it never becomes the cached entry
+        cache.asMap()
+                .computeIfPresent(
+                        notification.id(),
+                        (id, future) -> {
+                            var cached = valueOf(future);
+                            if (cached != null && cached.version() >= notification.version()) {
+                                return future;
+                            }
+                            invalidations.increment();
+                            return null;
+                        });
+    }
+
+    @EventListener
+    public void onStreamReset(DeviceChangeStreamReset reset) {
+        cache.synchronous().invalidateAll();
+    }
+
+    private static CompletableFuture<DeviceResponse> newer(
+            CompletableFuture<DeviceResponse> cached, CompletableFuture<DeviceResponse> candidate) {
+        var current = valueOf(cached);
+        return current == null || candidate.join().version() >= current.version()
+                ? candidate
+                : cached;
+    }
+
+    // null while the device is still loading or when loading failed
+    private static DeviceResponse valueOf(CompletableFuture<DeviceResponse> future) {
+        return future.state() == Future.State.SUCCESS ? future.resultNow() : null;
+    }
+
+    private static DeviceResponse join(CompletableFuture<DeviceResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
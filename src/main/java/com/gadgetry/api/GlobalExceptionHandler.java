@@ -2,6 +2,7 @@ package com.gadgetry.api;
 
 import com.gadgetry.domain.exception.DeviceInUseException;
 import com.gadgetry.domain.exception.DeviceNotFoundException;
+import com.gadgetry.domain.exception.DeviceVersionMismatchException;
 import jakarta.persistence.OptimisticLockException;
 import jakarta.validation.ConstraintViolationException;
 import java.net.URI;
@@ -33,6 +34,15 @@ public class GlobalExceptionHandler {
         return problemDetail;
     }
 
+    @ExceptionHandler(DeviceVersionMismatchException.class)
+    public ProblemDetail handlePreconditionFailed(DeviceVersionMismatchException ex) {
+        var problemDetail =
+                ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+        problemDetail.setTitle("Precondition Failed");
+        problemDetail.setType(URI.create("https://api.gadgetry.com/errors/precondition-failed"));
+        return problemDetail;
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ProblemDetail handleUnprocessableEntity(Exception ex) {
         var problemDetail =
@@ -0,0 +1,85 @@
+package com.gadgetry.api;
+
+import com.gadgetry.persistence.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// With read replicas, a client that just wrote would otherwise read from a replica that has not
+// replayed its write yet. Writes leave a cookie that keeps the client's reads on the primary for
+// the read-your-writes window, which should exceed the replica lag tolerance. The cookie only
+// decides where reads go, so a forged one costs nothing but primary load.
+@Component
+@ConditionalOnProperty(name = "gadgetry.datasource.replicas.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "gadgetry-primary-until";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Clock clock;
+    private final Duration window;
+
+    public ReadYourWritesFilter(
+            Clock clock,
+            @Value("${gadgetry.datasource.replicas.read-your-writes-window:5s}") Duration window) {
+        this.clock = clock;
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var now = clock.millis();
+        boolean primary;
+        if (SAFE_METHODS.contains(request.getMethod())) {
+            primary = primaryUntil(request) > now;
+        } else {
+            // set up front: the response may already be committed when the handler returns. The
+            // write request itself reads on the primary too, e.g. to explain a rejection
+            var cookie = new Cookie(COOKIE_NAME, String.valueOf(now + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+            primary = true;
+        }
+        if (!primary) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReadRouting.requirePrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRouting.clear();
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        var cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (var cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.gadgetry.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Map;
+
+@Schema(description = "Outcome of one item of a batch request")
+public record DeviceBatchItemResult(
+        @Schema(description = "Position of the item in the request", example = "0") int index,
+        @Schema(description = "HTTP status the item would have had on its own", example = "201")
+                int status,
+        @Schema(description = "Resulting device, present on success") DeviceResponse device,
+        @Schema(description = "Errors by field, present on failure") Map<String, String> errors) {}
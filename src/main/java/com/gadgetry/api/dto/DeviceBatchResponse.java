@@ -0,0 +1,16 @@
+package com.gadgetry.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Per-item results of a batch request")
+public record DeviceBatchResponse(
+        @Schema(description = "Number of items that succeeded", example = "98") int succeeded,
+        @Schema(description = "Number of items that failed", example = "2") int failed,
+        @Schema(description = "Results in request order") List<DeviceBatchItemResult> results) {
+
+    public static DeviceBatchResponse of(List<DeviceBatchItemResult> results) {
+        var succeeded = (int) results.stream().filter(result -> result.device() != null).count();
+        return new DeviceBatchResponse(succeeded, results.size() - succeeded, results);
+    }
+}
@@ -0,0 +1,21 @@
+package com.gadgetry.api.dto;
+
+import com.gadgetry.domain.model.DeviceBulkCommand;
+import com.gadgetry.domain.model.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+
+@Schema(description = "One operation of a bulk request")
+public record DeviceBulkOperationRequest(
+        @Schema(description = "Device identifier") @NotNull(message = "Device id is required")
+                UUID id,
+        @Schema(
+                        description = "Version the device must still have, omit to skip the check",
+                        example = "3")
+                Long expectedVersion,
+        @Schema(description = "Operation to apply", example = "SET_STATE")
+                @NotNull(message = "Operation is required")
+                DeviceBulkCommand.Operation op,
+        @Schema(description = "Target state, required for SET_STATE", example = "INACTIVE")
+                DeviceState state) {}
@@ -0,0 +1,24 @@
+package com.gadgetry.api.dto;
+
+import com.gadgetry.domain.model.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.UUID;
+
+@Schema(description = "Device change pushed by the change feed")
+public record DeviceChangeEvent(
+        @Schema(description = "Kind of change", example = "UPDATED") Type type,
+        @Schema(
+                        description = "Device unique identifier",
+                        example = "123e4567-e89b-12d3-a456-426614174000")
+                UUID id,
+        @Schema(description = "Device version after the change", example = "2") long version,
+        @Schema(description = "Device display name", example = "iPhone 15 Pro") String displayName,
+        @Schema(description = "Device brand", example = "Apple") String displayBrand,
+        @Schema(description = "Device state", example = "IN_USE") DeviceState state) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED;
+    }
+}
@@ -0,0 +1,11 @@
+package com.gadgetry.api.dto;
+
+import com.gadgetry.domain.model.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Map;
+
+@Schema(description = "Counts over every device matching the filter, not just the page")
+public record DeviceFacetsResponse(
+        @Schema(description = "Devices per state, if requested") Map<DeviceState, Long> state,
+        @Schema(description = "Devices of the top brands, largest first, if requested")
+                Map<String, Long> brand) {}
@@ -0,0 +1,21 @@
+package com.gadgetry.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Outcome of a device import")
+public record DeviceImportResponse(
+        @Schema(description = "Number of devices created", example = "120000") long inserted,
+        @Schema(description = "Number of existing devices updated", example = "2400000")
+                long updated,
+        @Schema(description = "Number of rows rejected", example = "12") long rejected,
+        @Schema(description = "Rejected rows in file order, capped at 1000")
+                List<Rejection> rejections) {
+
+    @Schema(description = "A row that was not imported")
+    public record Rejection(
+            @Schema(description = "1-based position of the record in the file", example = "42")
+                    long row,
+            @Schema(description = "Why the row was rejected", example = "Invalid state: BROKEN")
+                    String error) {}
+}
@@ -0,0 +1,13 @@
+package com.gadgetry.api.dto;
+
+import com.gadgetry.domain.model.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Map;
+
+@Schema(description = "Counts of devices that are not deleted")
+public record DeviceStatsResponse(
+        @Schema(description = "Number of devices", example = "2500000") long total,
+        @Schema(description = "Number of devices per state, including states with none")
+                Map<DeviceState, Long> byState,
+        @Schema(description = "Number of devices per normalized brand, largest first")
+                Map<String, Long> byBrand) {}
@@ -2,22 +2,39 @@ package com.gadgetry.api.dto;
 
 import java.util.List;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public record PageResponse<T>(
         List<T> content,
         int pageNumber,
         int pageSize,
-        long totalElements,
-        int totalPages,
-        boolean isLast) {
+        Long totalElements,
+        Integer totalPages,
+        boolean isLast,
+        String nextCursor,
+        DeviceFacetsResponse facets) {
 
-    public static <T> PageResponse<T> of(Page<T> page) {
+    public static <T> PageResponse<T> of(Slice<T> slice, String nextCursor) {
+        return of(slice, nextCursor, null);
+    }
+
+    public static <T> PageResponse<T> of(
+            Slice<T> slice, String nextCursor, DeviceFacetsResponse facets) {
+        // totals are only known when the slice was backed by a count query
+        Long totalElements = null;
+        Integer totalPages = null;
+        if (slice instanceof Page<T> page) {
+            totalElements = page.getTotalElements();
+            totalPages = page.getTotalPages();
+        }
         return new PageResponse<>(
-                page.getContent(),
-                page.getNumber(),
-                page.getSize(),
-                page.getTotalElements(),
-                page.getTotalPages(),
-                page.isLast());
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                totalElements,
+                totalPages,
+                slice.isLast(),
+                nextCursor,
+                facets);
     }
 }
@@ -0,0 +1,96 @@
+package com.gadgetry.config;
+
+import com.gadgetry.persistence.ConnectionLimitingDataSource;
+import com.gadgetry.persistence.ReadReplicaDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Enabled together with virtual threads (see application-virtual-threads.yml): with an
+// unbounded number of request threads the pool size becomes the real concurrency limit.
+@Configuration
+@ConditionalOnProperty(name = "gadgetry.datasource.limiter.enabled", havingValue = "true")
+public class ConnectionLimiterConfig {
+
+    @Bean
+    static LimitingPostProcessor connectionLimitingDataSourcePostProcessor(
+            Environment environment) {
+        return new LimitingPostProcessor(
+                environment.getProperty(
+                        "gadgetry.datasource.limiter.acquire-timeout",
+                        Duration.class,
+                        Duration.ofSeconds(60)));
+    }
+
+    // takes the DataSource so that its pools are limited by the time the gauges are bound
+    @Bean
+    MeterBinder connectionLimiterMetrics(
+            DataSource dataSource, LimitingPostProcessor limitingPostProcessor) {
+        return registry -> {
+            if (limitingPostProcessor.limiters.isEmpty()) {
+                throw new IllegalStateException("Connection limiter is not installed");
+            }
+            limitingPostProcessor.limiters.forEach(
+                    (pool, limited) ->
+                            Gauge.builder(
+                                            "gadgetry.datasource.limiter.waiting",
+                                            limited,
+                                            ConnectionLimitingDataSource::queueLength)
+                                    .description("Threads waiting for a connection permit")
+                                    .tag("pool", pool)
+                                    .register(registry));
+        };
+    }
+
+    // one limiter per Hikari pool, sized to that pool: with read replicas, the primary and every
+    // replica get their own, so replica reads never use up the primary's permits
+    static final class LimitingPostProcessor implements BeanPostProcessor {
+
+        private final Duration acquireTimeout;
+        private final Map<String, ConnectionLimitingDataSource> limiters =
+                new ConcurrentHashMap<>();
+
+        LimitingPostProcessor(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            // the pool may already sit behind another wrapper, e.g. the statement counter
+            try {
+                if (dataSource.isWrapperFor(ReadReplicaDataSource.class)) {
+                    dataSource
+                            .unwrap(ReadReplicaDataSource.class)
+                            .wrapPools(pool -> limit(pool, pool, beanName));
+                    return bean;
+                }
+                return limit(dataSource, dataSource.unwrap(HikariDataSource.class), beanName);
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Connection limiter requires HikariCP", ex);
+            }
+        }
+
+        // a pool Spring Boot created has no name until it starts, so it goes by its bean name
+        private DataSource limit(DataSource target, HikariDataSource pool, String beanName) {
+            var limited =
+                    new ConnectionLimitingDataSource(
+                            target, pool.getMaximumPoolSize(), acquireTimeout);
+            limiters.put(Objects.requireNonNullElse(pool.getPoolName(), beanName), limited);
+            return limited;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.gadgetry.config;
+
+import com.gadgetry.domain.service.DeviceEventSink;
+import com.gadgetry.domain.service.FileDeviceEventSink;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OutboxConfig {
+
+    // any other DeviceEventSink bean, e.g. one publishing to a message broker, replaces it
+    @Bean
+    @ConditionalOnMissingBean(DeviceEventSink.class)
+    public DeviceEventSink fileDeviceEventSink(
+            @Value("${gadgetry.outbox.sink.file:device-events.ndjson}") Path file) {
+        return new FileDeviceEventSink(file);
+    }
+}
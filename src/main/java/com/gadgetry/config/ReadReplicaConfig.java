@@ -0,0 +1,144 @@
+package com.gadgetry.config;
+
+import com.gadgetry.persistence.ReadReplicaDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// Puts the primary pool behind ReadReplicaDataSource when gadgetry.datasource.replicas.urls lists
+// replicas. The replica pools are not beans, so that the DataSource auto-configuration and the
+// other DataSource wrappers keep seeing a single DataSource.
+@Configuration
+@ConditionalOnProperty(name = "gadgetry.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final String PREFIX = "gadgetry.datasource.replicas.";
+
+    @Bean
+    static BeanPostProcessor readReplicaDataSourcePostProcessor(Environment environment) {
+        return new RoutingPostProcessor(environment);
+    }
+
+    @Bean
+    ReplicaLagChecker replicaLagChecker(DataSource dataSource) {
+        try {
+            return new ReplicaLagChecker(dataSource.unwrap(ReadReplicaDataSource.class));
+        } catch (SQLException ex) {
+            throw new IllegalStateException("No replicas configured in " + PREFIX + "urls", ex);
+        }
+    }
+
+    @Bean
+    MeterBinder replicaLagMetrics(ReplicaLagChecker replicaLagChecker) {
+        var routing = replicaLagChecker.routing;
+        return registry -> {
+            for (var name : routing.replicaNames()) {
+                Gauge.builder("gadgetry.datasource.replica.lag", routing, r -> r.lagSeconds(name))
+                        .description("Replication lag at the last check, NaN if unreachable")
+                        .baseUnit("seconds")
+                        .tag("replica", name)
+                        .register(registry);
+            }
+        };
+    }
+
+    static class ReplicaLagChecker implements DisposableBean {
+
+        private final ReadReplicaDataSource routing;
+
+        ReplicaLagChecker(ReadReplicaDataSource routing) {
+            this.routing = routing;
+        }
+
+        @Scheduled(fixedDelayString = "${gadgetry.datasource.replicas.lag-check-interval:1s}")
+        void checkLag() {
+            routing.checkLag();
+        }
+
+        @Override
+        public void destroy() {
+            routing.close();
+        }
+    }
+
+    // runs before the other DataSource wrappers, so that statement counting and the connection
+    // limiter see the connections of every pool
+    private static final class RoutingPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        private final Environment environment;
+
+        RoutingPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource primary)) {
+                return bean;
+            }
+            var urls =
+                    Binder.get(environment)
+                            .bind(PREFIX + "urls", Bindable.listOf(String.class))
+                            .orElse(List.of());
+            if (urls.isEmpty()) {
+                return bean;
+            }
+            var pools = new ArrayList<HikariDataSource>();
+            for (var i = 0; i < urls.size(); i++) {
+                pools.add(replicaPool("replica-" + i, urls.get(i), primary));
+            }
+            return new ReadReplicaDataSource(
+                    primary,
+                    pools,
+                    environment.getProperty(
+                            PREFIX + "max-lag", Duration.class, Duration.ofSeconds(2)));
+        }
+
+        private HikariDataSource replicaPool(String name, String url, HikariDataSource primary) {
+            var pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(url);
+            pool.setUsername(
+                    environment.getProperty(PREFIX + "username", primary.getUsername()));
+            pool.setPassword(
+                    environment.getProperty(PREFIX + "password", primary.getPassword()));
+            pool.setMaximumPoolSize(
+                    environment.getProperty(
+                            PREFIX + "maximum-pool-size",
+                            Integer.class,
+                            primary.getMaximumPoolSize()));
+            pool.setConnectionTimeout(
+                    environment
+                            .getProperty(
+                                    PREFIX + "connection-timeout",
+                                    Duration.class,
+                                    Duration.ofSeconds(2))
+                            .toMillis());
+            pool.setReadOnly(true);
+            // a replica that is down must neither stop startup nor stall reads for long; it is
+            // skipped until a lag check reaches it again
+            pool.setInitializationFailTimeout(-1);
+            return pool;
+        }
+
+        @Override
+        public int getOrder() {
+            return 0;
+        }
+    }
+}
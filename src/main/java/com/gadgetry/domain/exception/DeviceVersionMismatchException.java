@@ -0,0 +1,11 @@
+package com.gadgetry.domain.exception;
+
+public class DeviceVersionMismatchException extends RuntimeException {
+
+    public DeviceVersionMismatchException(long expectedVersion, long actualVersion) {
+        super(
+                String.format(
+                        "Device has changed: expected version %d but was %d",
+                        expectedVersion, actualVersion));
+    }
+}
@@ -0,0 +1,12 @@
+package com.gadgetry.domain.model;
+
+import java.util.UUID;
+
+public record DeviceBulkCommand(
+        UUID id, Long expectedVersion, Operation operation, DeviceState state) {
+
+    public enum Operation {
+        SET_STATE,
+        DELETE;
+    }
+}
@@ -0,0 +1,7 @@
+package com.gadgetry.domain.model;
+
+import java.util.Map;
+
+// counts over every device matching a filter; a facet that was not asked for is null, and brand
+// holds only the largest brands by normalized name, largest first
+public record DeviceFacets(Map<DeviceState, Long> state, Map<String, Long> brand) {}
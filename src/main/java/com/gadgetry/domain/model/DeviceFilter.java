@@ -0,0 +1,12 @@
+package com.gadgetry.domain.model;
+
+public record DeviceFilter(String name, String brand, DeviceState state, boolean fuzzy) {
+
+    public boolean hasSearchTerms() {
+        return !isBlank(name) || !isBlank(brand);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,9 @@
+package com.gadgetry.domain.model;
+
+import java.util.List;
+
+public record DeviceImportResult(
+        long inserted, long updated, long rejected, List<Rejection> rejections) {
+
+    public record Rejection(long row, String error) {}
+}
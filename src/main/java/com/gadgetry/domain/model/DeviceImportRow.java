@@ -0,0 +1,13 @@
+package com.gadgetry.domain.model;
+
+// One parsed record of an import file: either a device to merge or the reason it was rejected.
+public record DeviceImportRow(long row, Device device, String error) {
+
+    public static DeviceImportRow accepted(long row, Device device) {
+        return new DeviceImportRow(row, device, null);
+    }
+
+    public static DeviceImportRow rejected(long row, String error) {
+        return new DeviceImportRow(row, null, error);
+    }
+}
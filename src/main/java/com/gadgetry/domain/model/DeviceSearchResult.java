@@ -0,0 +1,6 @@
+package com.gadgetry.domain.model;
+
+import org.springframework.data.domain.Slice;
+
+// facets is null when none were asked for
+public record DeviceSearchResult<T>(Slice<T> devices, DeviceFacets facets) {}
@@ -0,0 +1,6 @@
+package com.gadgetry.domain.model;
+
+import java.util.Map;
+
+// counts of live devices; byBrand is keyed by normalized brand, largest first
+public record DeviceStats(long total, Map<DeviceState, Long> byState, Map<String, Long> byBrand) {}
@@ -0,0 +1,21 @@
+package com.gadgetry.domain.service;
+
+import java.util.Arrays;
+
+public enum CountMode {
+    EXACT,
+    ESTIMATE,
+    NONE;
+
+    public static CountMode from(String value) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(
+                        () ->
+                                new IllegalArgumentException(
+                                        String.format(
+                                                "Invalid count mode: %s. Allowed modes: %s",
+                                                value, Arrays.toString(values()))));
+    }
+}
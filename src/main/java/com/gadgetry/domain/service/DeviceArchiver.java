@@ -0,0 +1,96 @@
+package com.gadgetry.domain.service;
+
+import com.gadgetry.persistence.repository.DeviceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Moves devices soft-deleted longer ago than the retention window into devices_archive. Every
+// batch is one short statement in its own transaction, with a pause in between, so the job never
+// holds locks for long or writes WAL in bursts. Concurrent instances skip each other's rows.
+@Service
+@Slf4j
+@ConditionalOnProperty(
+        name = "gadgetry.archival.enabled",
+        havingValue = "true",
+        matchIfMissing = true)
+public class DeviceArchiver {
+
+    private final DeviceRepository deviceRepository;
+    private final Clock clock;
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Counter archived;
+    private final Timer batches;
+    private final AtomicLong lastCompletedRun = new AtomicLong();
+
+    public DeviceArchiver(
+            DeviceRepository deviceRepository,
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${gadgetry.archival.retention:30d}") Duration retention,
+            @Value("${gadgetry.archival.batch-size:500}") int batchSize,
+            @Value("${gadgetry.archival.batch-pause:200ms}") Duration batchPause) {
+        this.deviceRepository = deviceRepository;
+        this.clock = clock;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.archived =
+                Counter.builder("gadgetry.archival.devices")
+                        .description("Soft-deleted devices moved to the archive")
+                        .register(meterRegistry);
+        this.batches =
+                Timer.builder("gadgetry.archival.batch")
+                        .description("Archival batches")
+                        .register(meterRegistry);
+        Gauge.builder("gadgetry.archival.last-completed", lastCompletedRun, AtomicLong::get)
+                .description("Epoch second at which the last archival run finished")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${gadgetry.archival.initial-delay:10m}",
+            fixedDelayString = "${gadgetry.archival.interval:1h}")
+    void run() {
+        archiveExpired();
+    }
+
+    public long archiveExpired() {
+        var now = clock.instant();
+        var cutoff = now.minus(retention);
+        log.info("Archiving devices deleted before {}", cutoff);
+        var total = 0L;
+        int moved;
+        do {
+            moved = batches.record(() -> deviceRepository.archiveDeleted(cutoff, batchSize, now));
+            archived.increment(moved);
+            total += moved;
+        } while (moved == batchSize && pause());
+        lastCompletedRun.set(clock.instant().getEpochSecond());
+        log.info("Archived {} devices", total);
+        return total;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPause);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Device archival interrupted, resuming on the next run");
+            return false;
+        }
+    }
+}
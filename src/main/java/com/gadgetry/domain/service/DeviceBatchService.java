@@ -0,0 +1,156 @@
+package com.gadgetry.domain.service;
+
+import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceBulkCommand;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.persistence.DeviceVersion;
+import com.gadgetry.persistence.repository.DeviceRepository;
+import io.micrometer.core.annotation.Timed;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Slf4j
+@Timed("gadgetry.service")
+@RequiredArgsConstructor
+public class DeviceBatchService {
+
+    private final DeviceService deviceService;
+    private final DeviceRepository deviceRepository;
+    private final Clock clock;
+
+    public List<Outcome> createAll(List<Device> devices) {
+        if (devices.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return deviceService.createAll(devices).stream().map(Outcome::succeeded).toList();
+        } catch (DataAccessException ex) {
+            // one bad row fails the whole JDBC batch, so isolate it by retrying row by row
+            log.warn("Batch insert of {} devices failed, retrying one by one", devices.size(), ex);
+            return devices.stream().map(this::createOne).toList();
+        }
+    }
+
+    @Transactional
+    public List<Outcome> apply(List<DeviceBulkCommand> commands) {
+        log.info("Applying {} bulk device commands", commands.size());
+        validate(commands);
+        deviceRepository.announceBulkChange();
+        var now = clock.instant();
+
+        // one set-based statement per (operation, target state) group
+        var groups =
+                commands.stream()
+                        .collect(
+                                Collectors.groupingBy(
+                                        command ->
+                                                new GroupKey(command.operation(), command.state()),
+                                        LinkedHashMap::new,
+                                        Collectors.mapping(
+                                                command ->
+                                                        new DeviceVersion(
+                                                                command.id(),
+                                                                command.expectedVersion()),
+                                                Collectors.toList())));
+        var applied = new HashMap<UUID, Device>();
+        groups.forEach(
+                (key, targets) -> {
+                    var changed =
+                            key.operation() == DeviceBulkCommand.Operation.DELETE
+                                    ? deviceRepository.softDeleteAll(targets, now)
+                                    : deviceRepository.updateStateAll(targets, key.state(), now);
+                    changed.forEach(device -> applied.put(device.getId(), device));
+                });
+
+        // anything not applied is either gone, guarded or at another version
+        var rejectedIds =
+                commands.stream()
+                        .map(DeviceBulkCommand::id)
+                        .filter(id -> !applied.containsKey(id))
+                        .toList();
+        Map<UUID, Device> current =
+                deviceRepository.findAllById(rejectedIds).stream()
+                        .collect(Collectors.toMap(Device::getId, Function.identity()));
+
+        return commands.stream()
+                .map(
+                        command ->
+                                applied.containsKey(command.id())
+                                        ? Outcome.succeeded(applied.get(command.id()))
+                                        : rejection(command, current.get(command.id())))
+                .toList();
+    }
+
+    private Outcome createOne(Device device) {
+        // the failed batch may already have assigned identifiers
+        device.setId(null);
+        device.setVersion(null);
+        try {
+            return Outcome.succeeded(deviceService.create(device));
+        } catch (DataAccessException ex) {
+            log.warn("Could not create device: {}", device.getDisplayName(), ex);
+            return Outcome.failed(Failure.INVALID, "Device could not be stored");
+        }
+    }
+
+    private static void validate(List<DeviceBulkCommand> commands) {
+        var ids = new HashSet<UUID>();
+        for (var command : commands) {
+            if (!ids.add(command.id())) {
+                throw new IllegalArgumentException(
+                        "Duplicate device id in bulk request: " + command.id());
+            }
+            if (command.operation() == DeviceBulkCommand.Operation.SET_STATE
+                    && command.state() == null) {
+                throw new IllegalArgumentException(
+                        "State is required to change the state of device: " + command.id());
+            }
+        }
+    }
+
+    private static Outcome rejection(DeviceBulkCommand command, Device device) {
+        if (device == null) {
+            return Outcome.failed(Failure.NOT_FOUND, "Device not found with id: " + command.id());
+        }
+        if (command.operation() == DeviceBulkCommand.Operation.DELETE && device.isInUse()) {
+            return Outcome.failed(Failure.CONFLICT, "Cannot delete device in use");
+        }
+        return Outcome.failed(
+                Failure.CONFLICT,
+                String.format(
+                        "Version conflict: expected %d but was %d",
+                        command.expectedVersion(), device.getVersion()));
+    }
+
+    private record GroupKey(DeviceBulkCommand.Operation operation, DeviceState state) {}
+
+    public enum Failure {
+        INVALID,
+        NOT_FOUND,
+        CONFLICT;
+    }
+
+    public record Outcome(Device device, Failure failure, String error) {
+
+        static Outcome succeeded(Device device) {
+            return new Outcome(device, null, null);
+        }
+
+        static Outcome failed(Failure failure, String error) {
+            return new Outcome(null, failure, error);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.gadgetry.domain.service;
+
+import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceFacets;
+import com.gadgetry.domain.model.DeviceFilter;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.domain.model.DeviceStats;
+import com.gadgetry.persistence.JdbcStatementCounter;
+import com.gadgetry.persistence.ReadRouting;
+import com.gadgetry.persistence.repository.DeviceRepository;
+import com.gadgetry.util.StringNormalizationUtil;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+// Counts and facets run on a bounded pool of their own. The shared applicationTaskExecutor also
+// runs MVC async work, and exports hold its threads for up to 30 minutes, so listings would queue
+// behind them. When this pool and its queue are full, the request thread runs the query itself.
+@Component
+public class DeviceCounter implements DisposableBean {
+
+    private final DeviceRepository deviceRepository;
+    private final ThreadPoolExecutor executor;
+    private final AsyncCache<FilterKey, Long> estimates;
+    private final int facetBrandLimit;
+
+    public DeviceCounter(
+            DeviceRepository deviceRepository,
+            @Value("${gadgetry.count.executor.threads:16}") int threads,
+            @Value("${gadgetry.count.executor.queue-capacity:64}") int queueCapacity,
+            @Value("${gadgetry.count.estimate-ttl:30s}") Duration estimateTtl,
+            @Value("${gadgetry.count.estimate-max-entries:10000}") long estimateMaxEntries,
+            @Value("${gadgetry.facets.brand-limit:10}") int facetBrandLimit) {
+        this.deviceRepository = deviceRepository;
+        this.executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        0,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        Thread.ofPlatform().name("device-count-", 0).daemon(true).factory(),
+                        new ThreadPoolExecutor.CallerRunsPolicy());
+        this.facetBrandLimit = facetBrandLimit;
+        this.estimates =
+                Caffeine.newBuilder()
+                        .expireAfterWrite(estimateTtl)
+                        .maximumSize(estimateMaxEntries)
+                        .buildAsync();
+    }
+
+    public CompletableFuture<Long> countAsync(Specification<Device> spec) {
+        return async(() -> count(spec));
+    }
+
+    // completes with null when no facets are asked for
+    public CompletableFuture<DeviceFacets> countFacetsAsync(
+            Specification<Device> spec, Set<DeviceFacet> facets) {
+        if (facets.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // without a filter the counters kept in device_stats answer without scanning devices
+        if (spec == null) {
+            return async(() -> facetsOf(deviceRepository.loadStats(), facets));
+        }
+        // one grouped query per facet, in parallel with each other and with the page
+        var states =
+                facets.contains(DeviceFacet.STATE)
+                        ? async(() -> deviceRepository.countByState(spec))
+                        : CompletableFuture.<Map<DeviceState, Long>>completedFuture(null);
+        var brands =
+                facets.contains(DeviceFacet.BRAND)
+                        ? async(() -> deviceRepository.countTopBrands(spec, facetBrandLimit))
+                        : CompletableFuture.<Map<String, Long>>completedFuture(null);
+        return states.thenCombine(brands, DeviceFacets::new);
+    }
+
+    private DeviceFacets facetsOf(DeviceStats stats, Set<DeviceFacet> facets) {
+        Map<String, Long> brands = null;
+        if (facets.contains(DeviceFacet.BRAND)) {
+            brands = new LinkedHashMap<>();
+            for (var entry : stats.byBrand().entrySet()) {
+                if (brands.size() == facetBrandLimit) {
+                    break;
+                }
+                brands.put(entry.getKey(), entry.getValue());
+            }
+        }
+        var states = facets.contains(DeviceFacet.STATE) ? stats.byState() : null;
+        return new DeviceFacets(states, brands);
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> query) {
+        // statements issued on the executor still count towards the request that needs them,
+        // and read from the same database as its page
+        return CompletableFuture.supplyAsync(
+                JdbcStatementCounter.propagate(ReadRouting.propagate(query)), executor);
+    }
+
+    public long estimate(Specification<Device> spec, DeviceFilter filter) {
+        var key =
+                new FilterKey(
+                        StringNormalizationUtil.normalize(filter.name()),
+                        StringNormalizationUtil.normalize(filter.brand()),
+                        filter.state(),
+                        filter.fuzzy());
+        // callers for the same filter share one in-flight count; it runs on the executor rather
+        // than inside the cache's compute, so waiting does not pin a virtual thread's carrier
+        return estimates.get(key, (ignored, cacheExecutor) -> countAsync(spec)).join();
+    }
+
+    private long count(Specification<Device> spec) {
+        return spec != null ? deviceRepository.count(spec) : deviceRepository.count();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private record FilterKey(String name, String brand, DeviceState state, boolean fuzzy) {}
+}
@@ -0,0 +1,12 @@
+package com.gadgetry.domain.service;
+
+import com.gadgetry.persistence.DeviceOutboxEvent;
+import java.util.List;
+
+// Where DeviceOutboxRelay delivers device events, in outbox order. Events leave the outbox only
+// once publish returns, so a sink sees every event at least once and should only return after
+// the batch is durable; throwing leaves the batch for the next run.
+public interface DeviceEventSink {
+
+    void publish(List<DeviceOutboxEvent> events);
+}
@@ -0,0 +1,32 @@
+package com.gadgetry.domain.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum DeviceFacet {
+    STATE,
+    BRAND;
+
+    public static DeviceFacet from(String value) {
+        return Arrays.stream(values())
+                .filter(facet -> facet.name().equalsIgnoreCase(value.trim()))
+                .findFirst()
+                .orElseThrow(
+                        () ->
+                                new IllegalArgumentException(
+                                        String.format(
+                                                "Invalid facet: %s. Allowed facets: %s",
+                                                value, Arrays.toString(values()))));
+    }
+
+    public static Set<DeviceFacet> fromAll(Collection<String> values) {
+        var facets = EnumSet.noneOf(DeviceFacet.class);
+        values.stream()
+                .filter(value -> !value.isBlank())
+                .map(DeviceFacet::from)
+                .forEach(facets::add);
+        return facets;
+    }
+}
@@ -0,0 +1,77 @@
+package com.gadgetry.domain.service;
+
+import com.gadgetry.domain.model.DeviceImportResult;
+import com.gadgetry.domain.model.DeviceImportRow;
+import com.gadgetry.persistence.repository.DeviceRepository;
+import io.micrometer.core.annotation.Timed;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Slf4j
+@Timed("gadgetry.service")
+@RequiredArgsConstructor
+public class DeviceImportService {
+
+    static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private final DeviceRepository deviceRepository;
+    private final Clock clock;
+
+    @Transactional
+    public DeviceImportResult importDevices(Stream<DeviceImportRow> rows) {
+        log.info("Importing devices");
+        var rejections = new ArrayList<DeviceImportResult.Rejection>();
+        var invalid = new AtomicLong();
+        var accepted =
+                rows.filter(
+                                row -> {
+                                    if (row.error() == null) {
+                                        return true;
+                                    }
+                                    invalid.incrementAndGet();
+                                    if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                                        rejections.add(
+                                                new DeviceImportResult.Rejection(
+                                                        row.row(), row.error()));
+                                    }
+                                    return false;
+                                })
+                        .map(
+                                row -> {
+                                    var device = row.device();
+                                    // same trimming as DeviceEntityListener, which COPY bypasses
+                                    device.setDisplayName(device.getDisplayName().trim());
+                                    device.setDisplayBrand(device.getDisplayBrand().trim());
+                                    DeviceService.prepareForCreate(device);
+                                    return row;
+                                });
+
+        deviceRepository.announceBulkChange();
+        var merged = deviceRepository.importAll(accepted, clock.instant(), MAX_REPORTED_REJECTIONS);
+        rejections.addAll(merged.rejections());
+        rejections.sort(Comparator.comparingLong(DeviceImportResult.Rejection::row));
+        var reported = rejections.subList(0, Math.min(rejections.size(), MAX_REPORTED_REJECTIONS));
+
+        var result =
+                new DeviceImportResult(
+                        merged.inserted(),
+                        merged.updated(),
+                        merged.rejected() + invalid.get(),
+                        List.copyOf(reported));
+        log.info(
+                "Imported devices: {} inserted, {} updated, {} rejected",
+                result.inserted(),
+                result.updated(),
+                result.rejected());
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package com.gadgetry.domain.service;
+
+import com.gadgetry.persistence.DeviceOutboxEvent;
+import com.gadgetry.persistence.repository.DeviceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Drains device_outbox into the DeviceEventSink. Each batch is taken off the outbox and
+// published in one transaction, so an event is only removed once the sink has it. Concurrent
+// instances skip each other's batches, which means events of one device can reach the sink out
+// of order across instances; consumers should go by the version in the payload.
+@Service
+@Slf4j
+@ConditionalOnProperty(
+        name = "gadgetry.outbox.relay.enabled",
+        havingValue = "true",
+        matchIfMissing = true)
+public class DeviceOutboxRelay {
+
+    private final DeviceRepository deviceRepository;
+    private final DeviceEventSink sink;
+    private final Clock clock;
+    private final int batchSize;
+    private final Counter relayed;
+    private final Timer batches;
+    private final Timer lag;
+    private final AtomicLong oldestPendingAge = new AtomicLong();
+
+    public DeviceOutboxRelay(
+            DeviceRepository deviceRepository,
+            DeviceEventSink sink,
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${gadgetry.outbox.relay.batch-size:1000}") int batchSize) {
+        this.deviceRepository = deviceRepository;
+        this.sink = sink;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.relayed =
+                Counter.builder("gadgetry.outbox.relayed")
+                        .description("Device events handed to the sink")
+                        .register(meterRegistry);
+        this.batches =
+                Timer.builder("gadgetry.outbox.batch")
+                        .description("Outbox batches relayed, including the sink")
+                        .register(meterRegistry);
+        this.lag =
+                Timer.builder("gadgetry.outbox.lag")
+                        .description("Time from commit of a device change to its relay")
+                        .register(meterRegistry);
+        Gauge.builder("gadgetry.outbox.oldest-pending", oldestPendingAge, AtomicLong::get)
+                .description("Age of the oldest event left in the outbox after the last run")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${gadgetry.outbox.relay.initial-delay:5s}",
+            fixedDelayString = "${gadgetry.outbox.relay.interval:1s}")
+    void run() {
+        relayPending();
+    }
+
+    public long relayPending() {
+        var total = 0L;
+        int relayedInBatch;
+        try {
+            do {
+                relayedInBatch =
+                        batches.record(
+                                () -> deviceRepository.relayOutbox(batchSize, this::publish));
+                total += relayedInBatch;
+            } while (relayedInBatch == batchSize);
+        } finally {
+            // keeps growing while the sink fails, unlike the lag of events actually relayed
+            oldestPendingAge.set(
+                    deviceRepository
+                            .findOldestOutboxEventCreatedAt()
+                            .map(createdAt -> Duration.between(createdAt, clock.instant()))
+                            .map(Duration::toSeconds)
+                            .orElse(0L));
+        }
+        if (total > 0) {
+            log.debug("Relayed {} device events", total);
+        }
+        return total;
+    }
+
+    private void publish(List<DeviceOutboxEvent> events) {
+        sink.publish(events);
+        var now = clock.instant();
+        for (var event : events) {
+            lag.record(Duration.between(event.createdAt(), now));
+        }
+        relayed.increment(events.size());
+    }
+}
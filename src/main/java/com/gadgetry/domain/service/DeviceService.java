@@ -2,32 +2,70 @@ package com.gadgetry.domain.service;
 
 import com.gadgetry.domain.exception.DeviceInUseException;
 import com.gadgetry.domain.exception.DeviceNotFoundException;
+import com.gadgetry.domain.exception.DeviceVersionMismatchException;
 import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceFilter;
+import com.gadgetry.domain.model.DeviceSearchResult;
 import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.domain.model.DeviceStats;
+import com.gadgetry.persistence.DeviceCursor;
 import com.gadgetry.persistence.DeviceSpecification;
+import com.gadgetry.persistence.DeviceVersion;
 import com.gadgetry.persistence.repository.DeviceRepository;
 import com.gadgetry.util.StringNormalizationUtil;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.OptimisticLockException;
 import java.time.Clock;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Slf4j
+@Timed("gadgetry.service")
 @RequiredArgsConstructor
 public class DeviceService {
 
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
     private final DeviceRepository deviceRepository;
+    private final DeviceCounter deviceCounter;
     private final Clock clock;
+    private final MeterRegistry meterRegistry;
 
     @Transactional
     public Device create(Device device) {
         log.info("Creating new device: {}", device.getDisplayName());
+        prepareForCreate(device);
+        return deviceRepository.save(device);
+    }
+
+    @Transactional
+    public List<Device> createAll(List<Device> devices) {
+        log.info("Creating {} devices in one batch", devices.size());
+        devices.forEach(DeviceService::prepareForCreate);
+        deviceRepository.announceBulkChange();
+        var created = deviceRepository.saveAll(devices);
+        // flush here so that constraint violations surface as DataAccessException to the caller
+        deviceRepository.flush();
+        return created;
+    }
+
+    static void prepareForCreate(Device device) {
         // defaults to AVAILABLE if not set
         if (device.getState() == null) {
             device.setState(DeviceState.AVAILABLE);
@@ -35,7 +73,6 @@ public class DeviceService {
         // populate normalized fields for searching
         device.setName(StringNormalizationUtil.normalize(device.getDisplayName()));
         device.setBrand(StringNormalizationUtil.normalize(device.getDisplayBrand()));
-        return deviceRepository.save(device);
     }
 
     @Transactional(readOnly = true)
@@ -44,81 +81,254 @@ public class DeviceService {
         return deviceRepository.findById(id).orElseThrow(() -> new DeviceNotFoundException(id));
     }
 
+    // read-only path: selects straight into the projection without loading the entity
     @Transactional(readOnly = true)
-    public Page<Device> findDevices(
-            String name, String brand, DeviceState state, Pageable pageable) {
-        log.debug("Searching devices with name: {}, brand: {}, state: {}", name, brand, state);
-        Specification<Device> spec = null;
+    public <T> T findById(UUID id, Class<T> projection) {
+        log.debug("Fetching device with id: {}", id);
+        return deviceRepository
+                .findProjectionById(id, projection)
+                .orElseThrow(() -> new DeviceNotFoundException(id));
+    }
 
-        var nameSpec = DeviceSpecification.hasName(name);
-        var brandSpec = DeviceSpecification.hasBrand(brand);
-        var stateSpec = state != null ? DeviceSpecification.hasState(state) : null;
+    @Transactional(readOnly = true)
+    public long findVersion(UUID id) {
+        log.debug("Fetching version of device with id: {}", id);
+        return deviceRepository
+                .findVersionById(id)
+                .orElseThrow(() -> new DeviceNotFoundException(id));
+    }
 
-        if (nameSpec != null) {
-            spec = nameSpec;
-        }
-        if (brandSpec != null) {
-            spec = (spec == null) ? brandSpec : spec.and(brandSpec);
+    // reads the counters in device_stats, so it costs the same however many devices there are
+    @Transactional(readOnly = true)
+    public DeviceStats findStats() {
+        return deviceRepository.loadStats();
+    }
+
+    // deliberately outside a transaction: the page and the count run on separate connections in
+    // parallel, and neither should hold its connection while waiting for the other. Rows are
+    // selected straight into the projection, see DeviceRepositoryCustom.findSlice
+    public <T> Slice<T> findDevices(
+            DeviceFilter filter, Pageable pageable, CountMode countMode, Class<T> projection) {
+        return findDevices(filter, pageable, countMode, Set.of(), projection).devices();
+    }
+
+    // facets are counted over all devices matching the filter, alongside the page and its count
+    public <T> DeviceSearchResult<T> findDevices(
+            DeviceFilter filter,
+            Pageable pageable,
+            CountMode countMode,
+            Set<DeviceFacet> facets,
+            Class<T> projection) {
+        log.debug(
+                "Searching devices with filter: {}, count: {}, facets: {}",
+                filter,
+                countMode,
+                facets);
+        return searchTimer(filter, pageable.getSort(), countMode.name().toLowerCase(), facets)
+                .record(() -> search(filter, pageable, countMode, facets, projection));
+    }
+
+    private <T> DeviceSearchResult<T> search(
+            DeviceFilter filter,
+            Pageable pageable,
+            CountMode countMode,
+            Set<DeviceFacet> facets,
+            Class<T> projection) {
+        var spec = DeviceSpecification.matching(filter);
+        var pageSpec = spec;
+        if (pageable.getSort().isUnsorted() && filter.hasSearchTerms()) {
+            pageSpec = spec.and(DeviceSpecification.orderedBySimilarity(filter));
         }
-        if (stateSpec != null) {
-            spec = (spec == null) ? stateSpec : spec.and(stateSpec);
+
+        var facetCounts = deviceCounter.countFacetsAsync(spec, facets);
+        Slice<T> devices =
+                switch (countMode) {
+                    case NONE -> deviceRepository.findSlice(pageSpec, pageable, projection);
+                    case EXACT -> {
+                        var total = deviceCounter.countAsync(spec);
+                        var slice = deviceRepository.findSlice(pageSpec, pageable, projection);
+                        yield toPage(slice, total.join());
+                    }
+                    case ESTIMATE -> {
+                        var slice = deviceRepository.findSlice(pageSpec, pageable, projection);
+                        yield toPage(slice, deviceCounter.estimate(spec, filter));
+                    }
+                };
+        return new DeviceSearchResult<>(devices, facetCounts.join());
+    }
+
+    @Transactional(readOnly = true)
+    public <T> Slice<T> findDevicesAfter(
+            DeviceFilter filter, DeviceCursor cursor, int size, Class<T> projection) {
+        log.debug("Searching devices with filter: {} after cursor: {}", filter, cursor);
+        var keysetSpec = DeviceSpecification.isAfter(cursor);
+        var filterSpec = DeviceSpecification.matching(filter);
+        var spec = filterSpec == null ? keysetSpec : filterSpec.and(keysetSpec);
+        var pageable = PageRequest.of(0, size, cursor.toSort());
+        return searchTimer(filter, pageable.getSort(), "cursor", Set.of())
+                .record(() -> deviceRepository.findSlice(spec, pageable, projection));
+    }
+
+    // one series per query shape: which filters were present and what the page was sorted by
+    private Timer searchTimer(
+            DeviceFilter filter, Sort sort, String count, Set<DeviceFacet> facets) {
+        var sortField =
+                sort.stream()
+                        .findFirst()
+                        .map(Sort.Order::getProperty)
+                        .orElse(filter.hasSearchTerms() ? "relevance" : "unsorted");
+        return Timer.builder("gadgetry.device.search")
+                .description("Device listing queries by filter and sort")
+                .tag("name", String.valueOf(filter.name() != null))
+                .tag("brand", String.valueOf(filter.brand() != null))
+                .tag("state", filter.state() != null ? filter.state().name() : "any")
+                .tag("fuzzy", String.valueOf(filter.fuzzy()))
+                .tag("sort", sortField)
+                .tag("count", count)
+                .tag("facets", facetsTag(facets))
+                .register(meterRegistry);
+    }
+
+    private static String facetsTag(Set<DeviceFacet> facets) {
+        if (facets.isEmpty()) {
+            return "none";
         }
+        return facets.stream()
+                .map(facet -> facet.name().toLowerCase())
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
 
-        if (spec != null) {
-            return deviceRepository.findAll(spec, pageable);
-        } else {
-            return deviceRepository.findAll(pageable);
+    public void exportDevices(DeviceFilter filter, Consumer<Device> sink) {
+        log.info("Exporting devices with filter: {}", filter);
+        deviceRepository.streamAll(DeviceSpecification.matching(filter), EXPORT_FETCH_SIZE, sink);
+    }
+
+    private static <T> Page<T> toPage(Slice<T> slice, long total) {
+        // a count taken on another snapshot (or cached) must not contradict the page itself
+        var seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        if (slice.hasNext()) {
+            total = Math.max(total, seen + 1);
+        } else if (slice.hasContent()) {
+            total = seen;
         }
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
     }
 
-    @Transactional
-    public Device update(UUID id, Device updateData) {
+    // one conditional UPDATE ... RETURNING on the happy path; the device is only read to explain
+    // a rejection, so no transaction is needed around the two
+    public Device update(UUID id, Device updateData, Long expectedVersion) {
         log.info("Updating device with id: {}", id);
-        var existingDevice = findById(id);
-
-        if (existingDevice.isInUse()) {
-            if (updateData.getDisplayName() != null) {
-                var normalizedNewName =
-                        StringNormalizationUtil.normalize(updateData.getDisplayName());
-                if (!normalizedNewName.equals(existingDevice.getName())) {
-                    throw new DeviceInUseException("Cannot update name of device in use");
-                }
-            }
-            if (updateData.getDisplayBrand() != null) {
-                var normalizedNewBrand =
-                        StringNormalizationUtil.normalize(updateData.getDisplayBrand());
-                if (!normalizedNewBrand.equals(existingDevice.getBrand())) {
-                    throw new DeviceInUseException("Cannot update brand of device in use");
-                }
-            }
+        if (updateData.getDisplayName() == null
+                && updateData.getDisplayBrand() == null
+                && updateData.getState() == null) {
+            var device = findById(id);
+            checkVersion(device, expectedVersion);
+            return device;
         }
 
+        var changes = Device.builder().state(updateData.getState());
         if (updateData.getDisplayName() != null) {
-            existingDevice.setDisplayName(updateData.getDisplayName());
-            existingDevice.setName(StringNormalizationUtil.normalize(updateData.getDisplayName()));
+            changes.displayName(updateData.getDisplayName().trim())
+                    .name(StringNormalizationUtil.normalize(updateData.getDisplayName()));
         }
         if (updateData.getDisplayBrand() != null) {
-            existingDevice.setDisplayBrand(updateData.getDisplayBrand());
-            existingDevice.setBrand(
-                    StringNormalizationUtil.normalize(updateData.getDisplayBrand()));
+            changes.displayBrand(updateData.getDisplayBrand().trim())
+                    .brand(StringNormalizationUtil.normalize(updateData.getDisplayBrand()));
         }
-        if (updateData.getState() != null) {
-            existingDevice.setState(updateData.getState());
+        var patch = changes.build();
+        var updated = deviceRepository.patch(id, patch, expectedVersion, clock.instant());
+        if (updated.isPresent()) {
+            return updated.get();
         }
 
-        return deviceRepository.save(existingDevice);
+        var device = findById(id);
+        checkVersion(device, expectedVersion);
+        if (device.isInUse()) {
+            if (patch.getName() != null && !patch.getName().equals(device.getName())) {
+                throw new DeviceInUseException("Cannot update name of device in use");
+            }
+            if (patch.getBrand() != null && !patch.getBrand().equals(device.getBrand())) {
+                throw new DeviceInUseException("Cannot update brand of device in use");
+            }
+        }
+        throw concurrentModification(id);
+    }
+
+    // no transaction on purpose: the conditional update commits on its own, so a claimant that
+    // loses the race gets a clean rejection instead of an optimistic lock failure and rollback
+    public Device checkout(UUID id) {
+        log.info("Checking out device with id: {}", id);
+        var checkedOut =
+                deviceRepository.transitionState(
+                        id, DeviceState.AVAILABLE, DeviceState.IN_USE, clock.instant());
+        if (checkedOut.isPresent()) {
+            return checkedOut.get();
+        }
+        var device = findById(id);
+        if (device.isInUse()) {
+            throw new DeviceInUseException("Device is already in use");
+        }
+        throw new IllegalStateException("Cannot check out device in state " + device.getState());
+    }
+
+    public Device checkin(UUID id) {
+        log.info("Checking in device with id: {}", id);
+        var checkedIn =
+                deviceRepository.transitionState(
+                        id, DeviceState.IN_USE, DeviceState.AVAILABLE, clock.instant());
+        if (checkedIn.isPresent()) {
+            return checkedIn.get();
+        }
+        throw new IllegalStateException(
+                "Cannot check in device in state " + findById(id).getState());
     }
 
     @Transactional
-    public void delete(UUID id) {
+    public List<Device> allocate(DeviceFilter filter, int count) {
+        log.info("Allocating {} devices with filter: {}", count, filter);
+        var available =
+                new DeviceFilter(
+                        filter.name(), filter.brand(), DeviceState.AVAILABLE, filter.fuzzy());
+        var claimed =
+                deviceRepository.findAllSkipLocked(DeviceSpecification.matching(available), count);
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+        // the rows are locked by now, so the versions read above cannot have moved on
+        var targets =
+                claimed.stream()
+                        .map(device -> new DeviceVersion(device.getId(), device.getVersion()))
+                        .toList();
+        return deviceRepository.updateStateAll(targets, DeviceState.IN_USE, clock.instant());
+    }
+
+    public void delete(UUID id, Long expectedVersion) {
         log.info("Deleting device with id: {}", id);
-        var device = findById(id);
+        var deleted =
+                deviceRepository.softDeleteAll(
+                        List.of(new DeviceVersion(id, expectedVersion)), clock.instant());
+        if (!deleted.isEmpty()) {
+            return;
+        }
 
+        var device = findById(id);
+        checkVersion(device, expectedVersion);
         if (device.isInUse()) {
             throw new DeviceInUseException("Cannot delete device in use");
         }
+        throw concurrentModification(id);
+    }
+
+    private static void checkVersion(Device device, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(device.getVersion())) {
+            throw new DeviceVersionMismatchException(expectedVersion, device.getVersion());
+        }
+    }
 
-        device.setDeletedAt(clock.instant());
-        deviceRepository.save(device);
+    // the write was rejected, but the device read afterwards would have passed: it changed in
+    // between, so the caller should retry
+    private static OptimisticLockException concurrentModification(UUID id) {
+        return new OptimisticLockException("Device was modified concurrently: " + id);
     }
 }
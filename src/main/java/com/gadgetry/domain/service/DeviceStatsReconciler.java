@@ -0,0 +1,59 @@
+package com.gadgetry.domain.service;
+
+import com.gadgetry.persistence.repository.DeviceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Recounts devices now and then and corrects device_stats where it has drifted. Triggers keep
+// the counters exact, so drift only comes from writes that bypass them: TRUNCATE, disabled
+// triggers during bulk loads, or restores with session_replication_role = replica. The recount
+// scans every live device, hence the long interval.
+@Service
+@Slf4j
+@ConditionalOnProperty(
+        name = "gadgetry.stats.reconciliation.enabled",
+        havingValue = "true",
+        matchIfMissing = true)
+public class DeviceStatsReconciler {
+
+    private final DeviceRepository deviceRepository;
+    private final Counter drift;
+    private final Timer runs;
+
+    public DeviceStatsReconciler(DeviceRepository deviceRepository, MeterRegistry meterRegistry) {
+        this.deviceRepository = deviceRepository;
+        this.drift =
+                Counter.builder("gadgetry.stats.drift")
+                        .description("Brand and state counts that reconciliation had to correct")
+                        .register(meterRegistry);
+        this.runs =
+                Timer.builder("gadgetry.stats.reconciliation")
+                        .description("Recounts of devices against device_stats")
+                        .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${gadgetry.stats.reconciliation.initial-delay:15m}",
+            fixedDelayString = "${gadgetry.stats.reconciliation.interval:6h}")
+    void run() {
+        reconcile();
+    }
+
+    public int reconcile() {
+        var corrected = runs.record(deviceRepository::reconcileStats);
+        if (corrected < 0) {
+            log.info("Device stats are being reconciled by another instance");
+            return 0;
+        }
+        drift.increment(corrected);
+        if (corrected > 0) {
+            log.warn("Corrected {} drifted device counts", corrected);
+        }
+        return corrected;
+    }
+}
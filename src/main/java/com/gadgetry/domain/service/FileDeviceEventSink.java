@@ -0,0 +1,42 @@
+package com.gadgetry.domain.service;
+
+import com.gadgetry.persistence.DeviceOutboxEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+
+// Appends the event payloads to a local NDJSON file, one line per event.
+@RequiredArgsConstructor
+public class FileDeviceEventSink implements DeviceEventSink {
+
+    private final Path file;
+
+    @Override
+    public void publish(List<DeviceOutboxEvent> events) {
+        var lines = new StringBuilder();
+        for (var event : events) {
+            lines.append(event.payload()).append('\n');
+        }
+        try (var channel =
+                FileChannel.open(
+                        file,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND)) {
+            var buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(lines));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // the relay deletes the batch from the outbox right after this returns
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write device events to " + file, ex);
+        }
+    }
+}
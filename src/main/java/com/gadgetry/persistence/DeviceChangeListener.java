@@ -0,0 +1,108 @@
+package com.gadgetry.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+// Holds one dedicated LISTEN connection per instance, outside the pool, and republishes the
+// notifications sent by the devices trigger as application events.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DeviceChangeListener implements SmartLifecycle {
+
+    static final String CHANNEL = "device_changes";
+    // sent by bulk writes in place of a notification per device
+    static final String RESET_OPERATION = "RESET";
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(2);
+
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("device-change-listener").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (var connection =
+                    DriverManager.getConnection(
+                            dataSourceProperties.determineUrl(),
+                            dataSourceProperties.determineUsername(),
+                            dataSourceProperties.determinePassword())) {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for device changes on channel {}", CHANNEL);
+                eventPublisher.publishEvent(new DeviceChangeStreamReset());
+
+                var pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    var notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (var notification : notifications) {
+                        publish(notification.getParameter());
+                    }
+                }
+            } catch (SQLException ex) {
+                if (running) {
+                    log.warn("Device change listener disconnected, reconnecting", ex);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private void publish(String payload) {
+        try {
+            var notification = objectMapper.readValue(payload, DeviceChangeNotification.class);
+            if (RESET_OPERATION.equals(notification.operation())) {
+                eventPublisher.publishEvent(new DeviceChangeStreamReset());
+            } else {
+                eventPublisher.publishEvent(notification);
+            }
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring malformed device change notification: {}", payload);
+        } catch (RuntimeException ex) {
+            log.error("Device change subscriber failed for notification: {}", payload, ex);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RECONNECT_DELAY);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
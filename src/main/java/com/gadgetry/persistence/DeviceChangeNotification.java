@@ -0,0 +1,15 @@
+package com.gadgetry.persistence;
+
+import com.gadgetry.domain.model.DeviceState;
+import java.util.UUID;
+
+// brand is the normalized brand, kept for filtering
+public record DeviceChangeNotification(
+        UUID id,
+        long version,
+        String operation,
+        String displayName,
+        String displayBrand,
+        String brand,
+        DeviceState state,
+        boolean deleted) {}
@@ -0,0 +1,5 @@
+package com.gadgetry.persistence;
+
+// published whenever the listener (re)connects, since changes committed meanwhile were not
+// observed, and for every bulk write, which announces its changes this way instead
+public record DeviceChangeStreamReset() {}
@@ -0,0 +1,75 @@
+package com.gadgetry.persistence;
+
+import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceState;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import org.springframework.data.domain.Sort;
+
+public record DeviceCursor(
+        String sortField, Sort.Direction direction, Comparable<?> value, UUID id) {
+
+    private static final String SEPARATOR = "\n";
+
+    public static DeviceCursor from(Device device, Sort.Order order) {
+        var sortField = order.getProperty();
+        return new DeviceCursor(
+                sortField, order.getDirection(), valueOf(device, sortField), device.getId());
+    }
+
+    public static DeviceCursor decode(String token) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // value goes last so that separators inside names cannot shift the other parts
+            var parts = decoded.split(SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            var sortField = parts[0];
+            return new DeviceCursor(
+                    sortField,
+                    Sort.Direction.fromString(parts[1]),
+                    parseValue(sortField, parts[3]),
+                    UUID.fromString(parts[2]));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    public String encode() {
+        var raw = String.join(SEPARATOR, sortField, direction.name(), id.toString(), format());
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Sort toSort() {
+        return Sort.by(direction, sortField).and(Sort.by(direction, "id"));
+    }
+
+    private String format() {
+        return value instanceof DeviceState state ? state.name() : value.toString();
+    }
+
+    private static Comparable<?> valueOf(Device device, String sortField) {
+        return switch (sortField) {
+            case "createdAt" -> device.getCreatedAt();
+            case "updatedAt" -> device.getUpdatedAt();
+            case "name" -> device.getName();
+            case "brand" -> device.getBrand();
+            case "state" -> device.getState();
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        };
+    }
+
+    private static Comparable<?> parseValue(String sortField, String value) {
+        return switch (sortField) {
+            case "createdAt", "updatedAt" -> Instant.parse(value);
+            case "name", "brand" -> value;
+            case "state" -> DeviceState.valueOf(value);
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.gadgetry.persistence;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// payload is the JSON document written by the devices trigger
+public record DeviceOutboxEvent(
+        long id, UUID deviceId, String type, String payload, Instant createdAt) {}
@@ -0,0 +1,31 @@
+package com.gadgetry.persistence;
+
+import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceState;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import org.springframework.jdbc.core.RowMapper;
+
+// maps full devices rows (e.g. from RETURNING *) read outside of Hibernate
+public class DeviceRowMapper implements RowMapper<Device> {
+
+    public static final DeviceRowMapper INSTANCE = new DeviceRowMapper();
+
+    @Override
+    public Device mapRow(ResultSet rs, int rowNum) throws SQLException {
+        var deletedAt = rs.getTimestamp("deleted_at");
+        return Device.builder()
+                .id(rs.getObject("id", UUID.class))
+                .displayName(rs.getString("display_name"))
+                .displayBrand(rs.getString("display_brand"))
+                .name(rs.getString("name"))
+                .brand(rs.getString("brand"))
+                .state(DeviceState.valueOf(rs.getString("state")))
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .updatedAt(rs.getTimestamp("updated_at").toInstant())
+                .deletedAt(deletedAt != null ? deletedAt.toInstant() : null)
+                .version(rs.getLong("version"))
+                .build();
+    }
+}
@@ -1,8 +1,17 @@
 package com.gadgetry.persistence;
 
 import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceFilter;
 import com.gadgetry.domain.model.DeviceState;
 import com.gadgetry.util.StringNormalizationUtil;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 public class DeviceSpecification {
@@ -11,22 +20,31 @@ public class DeviceSpecification {
         // prevent instantiation for util class
     }
 
-    public static Specification<Device> hasName(String name) {
-        if (name == null || name.trim().isEmpty()) {
-            return null;
+    public static Specification<Device> matching(DeviceFilter filter) {
+        Specification<Device> spec = null;
+
+        var nameSpec = hasName(filter.name(), filter.fuzzy());
+        var brandSpec = hasBrand(filter.brand(), filter.fuzzy());
+        var stateSpec = hasState(filter.state());
+
+        if (nameSpec != null) {
+            spec = nameSpec;
+        }
+        if (brandSpec != null) {
+            spec = (spec == null) ? brandSpec : spec.and(brandSpec);
         }
-        var normalizedName = StringNormalizationUtil.normalize(name);
-        return (root, query, criteriaBuilder) ->
-                criteriaBuilder.equal(root.get("name"), normalizedName);
+        if (stateSpec != null) {
+            spec = (spec == null) ? stateSpec : spec.and(stateSpec);
+        }
+        return spec;
     }
 
-    public static Specification<Device> hasBrand(String brand) {
-        if (brand == null || brand.trim().isEmpty()) {
-            return null;
-        }
-        var normalizedBrand = StringNormalizationUtil.normalize(brand);
-        return (root, query, criteriaBuilder) ->
-                criteriaBuilder.equal(root.get("brand"), normalizedBrand);
+    public static Specification<Device> hasName(String name, boolean fuzzy) {
+        return matches("name", name, fuzzy);
+    }
+
+    public static Specification<Device> hasBrand(String brand, boolean fuzzy) {
+        return matches("brand", brand, fuzzy);
     }
 
     public static Specification<Device> hasState(DeviceState state) {
@@ -35,4 +53,108 @@ public class DeviceSpecification {
         }
         return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("state"), state);
     }
+
+    public static Specification<Device> orderedBySimilarity(DeviceFilter filter) {
+        var nameTerm = normalizeTerm(filter.name());
+        var brandTerm = normalizeTerm(filter.brand());
+        return (root, query, criteriaBuilder) -> {
+            // count queries share the specification but must stay unordered
+            if (Long.class.equals(query.getResultType())) {
+                return null;
+            }
+            var orders = new ArrayList<Order>();
+            if (nameTerm != null) {
+                orders.addAll(bySimilarity(criteriaBuilder, root, "name", nameTerm));
+            }
+            if (brandTerm != null) {
+                orders.addAll(bySimilarity(criteriaBuilder, root, "brand", brandTerm));
+            }
+            orders.add(criteriaBuilder.asc(root.get("id")));
+            query.orderBy(orders);
+            return null;
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Device> isAfter(DeviceCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        Comparable value = cursor.value();
+        var ascending = cursor.direction() == Sort.Direction.ASC;
+        return (root, query, criteriaBuilder) -> {
+            Path<Comparable> field = root.get(cursor.sortField());
+            Path<UUID> id = root.get("id");
+            // the redundant range bound lets the (field, id) index seek straight to the cursor
+            // instead of filtering every row that precedes it
+            var bound =
+                    ascending
+                            ? criteriaBuilder.greaterThanOrEqualTo(field, value)
+                            : criteriaBuilder.lessThanOrEqualTo(field, value);
+            var strictlyAfter =
+                    ascending
+                            ? criteriaBuilder.greaterThan(field, value)
+                            : criteriaBuilder.lessThan(field, value);
+            var tieBreak =
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(field, value),
+                            ascending
+                                    ? criteriaBuilder.greaterThan(id, cursor.id())
+                                    : criteriaBuilder.lessThan(id, cursor.id()));
+            return criteriaBuilder.and(bound, criteriaBuilder.or(strictlyAfter, tieBreak));
+        };
+    }
+
+    private static Specification<Device> matches(String attribute, String value, boolean fuzzy) {
+        var term = normalizeTerm(value);
+        if (term == null) {
+            return null;
+        }
+        var pattern = "%" + escapeLike(term) + "%";
+        return (root, query, criteriaBuilder) -> {
+            Path<String> field = root.get(attribute);
+            var contains = criteriaBuilder.like(field, pattern, '\\');
+            if (!fuzzy) {
+                return contains;
+            }
+            var similar =
+                    criteriaBuilder.isTrue(
+                            criteriaBuilder.function(
+                                    TrigramFunctionContributor.WORD_SIMILAR,
+                                    Boolean.class,
+                                    criteriaBuilder.literal(term),
+                                    field));
+            return criteriaBuilder.or(contains, similar);
+        };
+    }
+
+    private static List<Order> bySimilarity(
+            CriteriaBuilder criteriaBuilder, Root<Device> root, String attribute, String term) {
+        // word similarity ranks how well the term matches any part of the value; plain similarity
+        // then prefers values that contain little beyond the term
+        return List.of(
+                criteriaBuilder.desc(
+                        criteriaBuilder.function(
+                                "word_similarity",
+                                Double.class,
+                                criteriaBuilder.literal(term),
+                                root.get(attribute))),
+                criteriaBuilder.desc(
+                        criteriaBuilder.function(
+                                "similarity",
+                                Double.class,
+                                criteriaBuilder.literal(term),
+                                root.get(attribute))));
+    }
+
+    private static String normalizeTerm(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return StringNormalizationUtil.normalize(value);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
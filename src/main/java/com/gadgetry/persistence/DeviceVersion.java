@@ -0,0 +1,6 @@
+package com.gadgetry.persistence;
+
+import java.util.UUID;
+
+// a device id with the version the caller expects it to have; null skips the check
+public record DeviceVersion(UUID id, Long expectedVersion) {}
@@ -0,0 +1,46 @@
+package com.gadgetry.persistence;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Counts the statements a unit of work prepares, across every code path that reaches the
+// DataSource (Hibernate as well as JdbcTemplate). The count follows the work onto other threads
+// only where it is handed over explicitly with propagate.
+public final class JdbcStatementCounter {
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    private JdbcStatementCounter() {
+        // prevent instantiation for util class
+    }
+
+    public static AtomicInteger start() {
+        var counter = new AtomicInteger();
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        var counter = CURRENT.get();
+        return () -> {
+            var previous = CURRENT.get();
+            CURRENT.set(counter);
+            try {
+                return task.get();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    static void increment() {
+        var counter = CURRENT.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+}
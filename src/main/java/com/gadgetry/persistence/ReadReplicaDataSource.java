@@ -0,0 +1,142 @@
+package com.gadgetry.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+// Sends read-only transactions to replica pools and everything else to the primary. Connections
+// are fetched lazily, so the transaction manager has marked them read-only by the time a pool is
+// chosen. Replicas further behind than maxLag, or unreachable at the last lag check, are skipped;
+// without a usable replica, or when ReadRouting requires it, reads stay on the primary.
+@Slf4j
+public class ReadReplicaDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    // an idle replica has nothing to replay, so the age of its last replayed commit is no lag
+    private static final String LAG_SQL =
+            """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE extract(epoch FROM now() - pg_last_xact_replay_timestamp())
+                   END
+            """;
+
+    private final HikariDataSource primaryPool;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private DataSource primary;
+
+    public ReadReplicaDataSource(
+            HikariDataSource primary, List<HikariDataSource> replicaPools, Duration maxLag) {
+        super(primary);
+        this.primaryPool = primary;
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        setReadOnlyDataSource(new Router());
+        checkLag();
+        log.info("Routing read-only transactions to replicas {}", replicaNames());
+    }
+
+    // puts every pool, the primary included, behind its own wrapper, such as a connection limiter
+    // sized to that pool. Lag checks keep using the replica pools directly
+    public void wrapPools(Function<HikariDataSource, DataSource> wrapper) {
+        primary = wrapper.apply(primaryPool);
+        setTargetDataSource(primary);
+        for (var replica : replicas) {
+            replica.connections = wrapper.apply(replica.pool);
+        }
+    }
+
+    public void checkLag() {
+        for (var replica : replicas) {
+            try (var connection = replica.pool.getConnection();
+                    var statement = connection.createStatement();
+                    var resultSet = statement.executeQuery(LAG_SQL)) {
+                resultSet.next();
+                replica.lagSeconds = resultSet.getDouble(1);
+            } catch (SQLException ex) {
+                if (!Double.isNaN(replica.lagSeconds)) {
+                    log.warn("Replica {} is unreachable, reading from others", replica.name(), ex);
+                }
+                replica.lagSeconds = Double.NaN;
+            }
+        }
+    }
+
+    public List<String> replicaNames() {
+        return replicas.stream().map(Replica::name).toList();
+    }
+
+    // NaN while the replica is unreachable
+    public double lagSeconds(String replicaName) {
+        return replicas.stream()
+                .filter(replica -> replica.name().equals(replicaName))
+                .findFirst()
+                .map(replica -> replica.lagSeconds)
+                .orElse(Double.NaN);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private Connection readOnlyConnection() throws SQLException {
+        if (!ReadRouting.primaryRequired()) {
+            for (var attempt = 0; attempt < replicas.size(); attempt++) {
+                var replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                // NaN, i.e. unreachable, never compares as within the tolerance
+                if (replica.lagSeconds <= maxLagSeconds) {
+                    try {
+                        return replica.connections.getConnection();
+                    } catch (SQLException ex) {
+                        log.warn("Replica {} is unreachable, reading from others", replica.name());
+                        replica.lagSeconds = Double.NaN;
+                    }
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    private final class Router extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readOnlyConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return readOnlyConnection();
+        }
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        // the pool, or its wrapper once wrapPools ran
+        private DataSource connections;
+        // unknown until the first check; volatile so request threads see the checker's writes
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+            this.connections = pool;
+        }
+
+        String name() {
+            return pool.getPoolName();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.gadgetry.persistence;
+
+import java.util.function.Supplier;
+
+// Marks work whose reads must see the primary, e.g. a client's reads right after its own write.
+// Read-only transactions go to a replica otherwise, see ReadReplicaDataSource. Like
+// JdbcStatementCounter, the mark follows the work onto other threads only through propagate.
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+        // prevent instantiation for util class
+    }
+
+    public static void requirePrimary() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY.remove();
+    }
+
+    public static <T> T onPrimary(Supplier<T> task) {
+        var previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return task.get();
+        } finally {
+            PRIMARY.set(previous);
+        }
+    }
+
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        var primary = PRIMARY.get();
+        return () -> {
+            var previous = PRIMARY.get();
+            PRIMARY.set(primary);
+            try {
+                return task.get();
+            } finally {
+                PRIMARY.set(previous);
+            }
+        };
+    }
+
+    static boolean primaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY.get());
+    }
+}
@@ -0,0 +1,24 @@
+package com.gadgetry.persistence;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+// exposes the pg_trgm operators to criteria queries; plain function calls such as
+// word_similarity() cannot use the trigram GIN indexes, the operators can
+public class TrigramFunctionContributor implements FunctionContributor {
+
+    public static final String WORD_SIMILAR = "trgm_word_similar";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        var booleanType =
+                functionContributions
+                        .getTypeConfiguration()
+                        .getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN);
+        functionContributions
+                .getFunctionRegistry()
+                .registerPattern(WORD_SIMILAR, "(?1 <% ?2)", booleanType);
+    }
+}
@@ -1,11 +1,19 @@
 package com.gadgetry.persistence.repository;
 
 import com.gadgetry.domain.model.Device;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface DeviceRepository
-        extends JpaRepository<Device, UUID>, JpaSpecificationExecutor<Device> {}
+        extends JpaRepository<Device, UUID>,
+                JpaSpecificationExecutor<Device>,
+                DeviceRepositoryCustom {
+
+    @Query("SELECT d.version FROM Device d WHERE d.id = :id")
+    Optional<Long> findVersionById(UUID id);
+}
@@ -0,0 +1,73 @@
+package com.gadgetry.persistence.repository;
+
+import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceImportResult;
+import com.gadgetry.domain.model.DeviceImportRow;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.domain.model.DeviceStats;
+import com.gadgetry.persistence.DeviceOutboxEvent;
+import com.gadgetry.persistence.DeviceVersion;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface DeviceRepositoryCustom {
+
+    // read-only queries that select id, displayName, displayBrand, state, createdAt, updatedAt
+    // and version straight into the projection's constructor, in that order
+    <T> Slice<T> findSlice(Specification<Device> spec, Pageable pageable, Class<T> projection);
+
+    <T> Optional<T> findProjectionById(UUID id, Class<T> projection);
+
+    // devices matching spec per state, including states without any
+    Map<DeviceState, Long> countByState(Specification<Device> spec);
+
+    // the limit brands with the most devices matching spec, largest first
+    Map<String, Long> countTopBrands(Specification<Device> spec, int limit);
+
+    void streamAll(Specification<Device> spec, int fetchSize, Consumer<Device> action);
+
+    List<Device> findAllSkipLocked(Specification<Device> spec, int limit);
+
+    Optional<Device> transitionState(
+            UUID id, DeviceState from, DeviceState to, Instant updatedAt);
+
+    // writes only the non-null fields of changes; empty when the device is missing, at another
+    // version than expected, or in use while changes would rename or rebrand it
+    Optional<Device> patch(UUID id, Device changes, Long expectedVersion, Instant updatedAt);
+
+    List<Device> updateStateAll(List<DeviceVersion> targets, DeviceState state, Instant updatedAt);
+
+    List<Device> softDeleteAll(List<DeviceVersion> targets, Instant deletedAt);
+
+    // replaces the change notification of every device this transaction writes from now on with
+    // one reset of the change stream, sent on commit
+    void announceBulkChange();
+
+    // moves up to limit devices deleted before the cutoff into devices_archive, oldest first
+    int archiveDeleted(Instant deletedBefore, int limit, Instant archivedAt);
+
+    // takes up to limit of the oldest outbox events off the outbox and hands them to publisher in
+    // id order, in one transaction: they stay in the outbox if publisher throws
+    int relayOutbox(int limit, Consumer<List<DeviceOutboxEvent>> publisher);
+
+    Optional<Instant> findOldestOutboxEventCreatedAt();
+
+    // sums the device_stats stripes; never touches devices
+    DeviceStats loadStats();
+
+    // adds the difference between a fresh count of devices and device_stats to device_stats;
+    // returns the number of brand and state pairs that were off, or -1 if another instance is
+    // reconciling
+    int reconcileStats();
+
+    DeviceImportResult importAll(
+            Stream<DeviceImportRow> rows, Instant importedAt, int rejectionLimit);
+}
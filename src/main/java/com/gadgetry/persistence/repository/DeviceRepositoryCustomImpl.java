@@ -0,0 +1,720 @@
+package com.gadgetry.persistence.repository;
+
+import com.gadgetry.domain.model.Device;
+import com.gadgetry.domain.model.DeviceImportResult;
+import com.gadgetry.domain.model.DeviceImportRow;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.domain.model.DeviceStats;
+import com.gadgetry.persistence.DeviceOutboxEvent;
+import com.gadgetry.persistence.DeviceRowMapper;
+import com.gadgetry.persistence.DeviceVersion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.LockOptions;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.SpecHints;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+class DeviceRepositoryCustomImpl implements DeviceRepositoryCustom {
+
+    private static final String TRANSITION_STATE_SQL =
+            """
+            UPDATE devices
+            SET state = ?, updated_at = ?, version = version + 1
+            WHERE id = ? AND state = ? AND deleted_at IS NULL
+            RETURNING *
+            """;
+
+    // PostgreSQL orders uuids as unsigned bytes, UUID.compareTo as signed longs
+    private static final Comparator<DeviceVersion> BY_ID =
+            Comparator.comparing(
+                    DeviceVersion::id,
+                    Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+                            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned));
+
+    private static final String UPDATE_STATE_SQL =
+            """
+            UPDATE devices d
+            SET state = ?, updated_at = ?, version = d.version + 1
+            FROM unnest(?::uuid[], ?::bigint[]) AS t(id, expected_version)
+            WHERE d.id = t.id
+              AND d.deleted_at IS NULL
+              AND (t.expected_version IS NULL OR d.version = t.expected_version)
+            RETURNING d.*
+            """;
+
+    private static final String SOFT_DELETE_SQL =
+            """
+            UPDATE devices d
+            SET deleted_at = ?, updated_at = ?, version = d.version + 1
+            FROM unnest(?::uuid[], ?::bigint[]) AS t(id, expected_version)
+            WHERE d.id = t.id
+              AND d.deleted_at IS NULL
+              AND d.state <> 'IN_USE'
+              AND (t.expected_version IS NULL OR d.version = t.expected_version)
+            RETURNING d.*
+            """;
+
+    // SET LOCAL for the notification triggers; the reset is only delivered on commit, like the
+    // notifications it replaces
+    private static final String ANNOUNCE_BULK_CHANGE_SQL =
+            """
+            SELECT set_config('gadgetry.bulk_change', 'on', true),
+                   pg_notify('device_changes', json_build_object('operation', 'RESET')::text)
+            """;
+
+    // rows another archiver has locked are skipped rather than waited on; an id archived before
+    // replaces its older copy, so one such row cannot fail the batch on every run
+    private static final String ARCHIVE_DELETED_SQL =
+            """
+            WITH expired AS (
+                SELECT id
+                FROM devices
+                WHERE deleted_at < ?
+                ORDER BY deleted_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), moved AS (
+                DELETE FROM devices d
+                USING expired
+                WHERE d.id = expired.id
+                RETURNING d.*
+            )
+            INSERT INTO devices_archive (id, display_name, display_brand, name, brand, state,
+                                         created_at, updated_at, deleted_at, version, archived_at)
+            SELECT id, display_name, display_brand, name, brand, state,
+                   created_at, updated_at, deleted_at, version, ?
+            FROM moved
+            ON CONFLICT (id) DO UPDATE
+            SET display_name = excluded.display_name,
+                display_brand = excluded.display_brand,
+                name = excluded.name,
+                brand = excluded.brand,
+                state = excluded.state,
+                created_at = excluded.created_at,
+                updated_at = excluded.updated_at,
+                deleted_at = excluded.deleted_at,
+                version = excluded.version,
+                archived_at = excluded.archived_at
+            """;
+
+    // rows another relay has locked are skipped, so instances drain disjoint batches
+    private static final String RELAY_OUTBOX_SQL =
+            """
+            DELETE FROM device_outbox
+            WHERE id IN (
+                SELECT id
+                FROM device_outbox
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id, device_id, type, payload::text AS payload, created_at
+            """;
+
+    private static final String LOAD_STATS_SQL =
+            """
+            SELECT brand, state, sum(device_count) AS device_count
+            FROM device_stats
+            GROUP BY brand, state
+            HAVING sum(device_count) <> 0
+            ORDER BY sum(sum(device_count)) OVER (PARTITION BY brand) DESC, brand, state
+            """;
+
+    // One statement, so devices and device_stats are read from the same snapshot: a transaction
+    // that commits meanwhile has either both its device changes and its deltas in there or
+    // neither. The correction is added rather than written over the count for the same reason.
+    private static final String RECONCILE_STATS_SQL =
+            """
+            WITH actual AS (
+                SELECT brand, state, count(*) AS device_count
+                FROM devices
+                WHERE deleted_at IS NULL
+                GROUP BY brand, state
+            ), recorded AS (
+                SELECT brand, state, sum(device_count) AS device_count
+                FROM device_stats
+                GROUP BY brand, state
+            )
+            INSERT INTO device_stats (brand, state, stripe, device_count)
+            SELECT brand, state, 0, coalesce(a.device_count, 0) - coalesce(r.device_count, 0)
+            FROM actual a
+            FULL JOIN recorded r USING (brand, state)
+            WHERE coalesce(a.device_count, 0) <> coalesce(r.device_count, 0)
+            ORDER BY brand, state
+            ON CONFLICT (brand, state, stripe)
+                DO UPDATE SET device_count = device_stats.device_count + EXCLUDED.device_count
+            """;
+
+    private static final String CREATE_IMPORT_TABLE_SQL =
+            """
+            CREATE TEMP TABLE device_import (
+                source_row    BIGINT NOT NULL,
+                id            UUID,
+                display_name  VARCHAR(255) NOT NULL,
+                display_brand VARCHAR(100) NOT NULL,
+                name          VARCHAR(255) NOT NULL,
+                brand         VARCHAR(100) NOT NULL,
+                state         VARCHAR(20) NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_IMPORT_SQL =
+            """
+            COPY device_import (source_row, id, display_name, display_brand, name, brand, state)
+            FROM STDIN (FORMAT csv)
+            """;
+
+    // the last row wins when a file mentions the same id twice; an in-use device keeps its name
+    // and brand, as in DeviceService.update, and a deleted device is never revived, whether it
+    // is still in devices or already archived
+    private static final String MERGE_IMPORT_SQL =
+            """
+            WITH candidates AS (
+                (SELECT DISTINCT ON (id) *
+                 FROM device_import
+                 WHERE id IS NOT NULL
+                 ORDER BY id, source_row DESC)
+                UNION ALL
+                SELECT * FROM device_import WHERE id IS NULL
+            ), merged AS (
+                INSERT INTO devices AS d (id, display_name, display_brand, name, brand, state,
+                                          created_at, updated_at, version)
+                SELECT coalesce(id, gen_random_uuid()), display_name, display_brand, name, brand,
+                       state, ?::timestamp, ?::timestamp, 0
+                FROM candidates c
+                WHERE c.id IS NULL
+                   OR NOT EXISTS (SELECT 1 FROM devices_archive a WHERE a.id = c.id)
+                   OR EXISTS (SELECT 1 FROM devices e WHERE e.id = c.id)
+                ON CONFLICT (id) DO UPDATE
+                SET display_name = excluded.display_name,
+                    display_brand = excluded.display_brand,
+                    name = excluded.name,
+                    brand = excluded.brand,
+                    state = excluded.state,
+                    updated_at = excluded.updated_at,
+                    version = d.version + 1
+                WHERE d.deleted_at IS NULL
+                  AND (d.state <> 'IN_USE' OR (d.name = excluded.name AND d.brand = excluded.brand))
+                RETURNING d.xmax = 0 AS inserted
+            )
+            SELECT count(*) FILTER (WHERE inserted) AS inserted,
+                   count(*) FILTER (WHERE NOT inserted) AS updated
+            FROM merged
+            """;
+
+    // rows the merge skipped are exactly those still contradicting the device they target, live
+    // or archived
+    private static final String IMPORT_REJECTIONS_SQL =
+            """
+            SELECT i.source_row,
+                   CASE
+                       WHEN i.source_row < latest.source_row
+                           THEN 'Superseded by row ' || latest.source_row
+                       WHEN d.id IS NULL OR d.deleted_at IS NOT NULL THEN 'Device was deleted'
+                       ELSE 'Cannot update name or brand of device in use'
+                   END AS error
+            FROM device_import i
+            JOIN (SELECT id, max(source_row) AS source_row
+                  FROM device_import
+                  WHERE id IS NOT NULL
+                  GROUP BY id) latest ON latest.id = i.id
+            LEFT JOIN devices d ON d.id = i.id
+            WHERE (d.id IS NOT NULL
+                   OR EXISTS (SELECT 1 FROM devices_archive a WHERE a.id = i.id))
+              AND (i.source_row < latest.source_row
+                   OR d.id IS NULL
+                   OR d.deleted_at IS NOT NULL
+                   OR (d.state = 'IN_USE' AND (d.name <> i.name OR d.brand <> i.brand)))
+            ORDER BY i.source_row
+            LIMIT ?
+            """;
+
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> Slice<T> findSlice(
+            Specification<Device> spec, Pageable pageable, Class<T> projection) {
+        var query = entityManager.getCriteriaBuilder().createQuery(projection);
+        var root = query.from(Device.class);
+        query.select(construct(projection, root));
+        return fetchSlice(query, root, spec, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> Optional<T> findProjectionById(UUID id, Class<T> projection) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(projection);
+        var root = query.from(Device.class);
+        query.select(construct(projection, root)).where(criteriaBuilder.equal(root.get("id"), id));
+        return entityManager.createQuery(query).getResultStream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<DeviceState, Long> countByState(Specification<Device> spec) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(Device.class);
+        var state = root.<DeviceState>get("state");
+        var count = criteriaBuilder.count(root);
+        query.multiselect(state, count).groupBy(state);
+        restrict(query, root, spec);
+
+        var counts = new EnumMap<DeviceState, Long>(DeviceState.class);
+        for (var value : DeviceState.values()) {
+            counts.put(value, 0L);
+        }
+        entityManager
+                .createQuery(query)
+                .getResultList()
+                .forEach(row -> counts.put(row.get(state), row.get(count)));
+        return counts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> countTopBrands(Specification<Device> spec, int limit) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(Device.class);
+        var brand = root.<String>get("brand");
+        var count = criteriaBuilder.count(root);
+        // every matching row is still grouped, but only limit groups are sorted and returned
+        query.multiselect(brand, count)
+                .groupBy(brand)
+                .orderBy(criteriaBuilder.desc(count), criteriaBuilder.asc(brand));
+        restrict(query, root, spec);
+
+        var counts = new LinkedHashMap<String, Long>();
+        entityManager
+                .createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .forEach(row -> counts.put(row.get(brand), row.get(count)));
+        return counts;
+    }
+
+    private void restrict(CriteriaQuery<?> query, Root<Device> root, Specification<Device> spec) {
+        if (spec != null) {
+            var predicate = spec.toPredicate(root, query, entityManager.getCriteriaBuilder());
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+    }
+
+    // a constructor expression builds the result from the row directly: no entity is hydrated,
+    // snapshotted for dirty checking or held by the persistence context
+    private <T> CompoundSelection<T> construct(Class<T> projection, Root<Device> root) {
+        return entityManager
+                .getCriteriaBuilder()
+                .construct(
+                        projection,
+                        root.get("id"),
+                        root.get("displayName"),
+                        root.get("displayBrand"),
+                        root.get("state"),
+                        root.get("createdAt"),
+                        root.get("updatedAt"),
+                        root.get("version"));
+    }
+
+    private <T> Slice<T> fetchSlice(
+            CriteriaQuery<T> query,
+            Root<Device> root,
+            Specification<Device> spec,
+            Pageable pageable) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        restrict(query, root, spec);
+        // an unsorted page keeps whatever ordering the specification applied
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        // fetch one extra row to learn whether another page exists without counting
+        var rows =
+                entityManager
+                        .createQuery(query)
+                        .setFirstResult((int) pageable.getOffset())
+                        .setMaxResults(pageable.getPageSize() + 1)
+                        .getResultList();
+        var hasNext = rows.size() > pageable.getPageSize();
+        var content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Specification<Device> spec, int fetchSize, Consumer<Device> action) {
+        // a stateless session keeps no persistence context, and running it on the transaction's
+        // connection keeps autocommit off, which is what makes the driver fetch through a cursor
+        var sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        var dataSource = jdbcTemplate.getDataSource();
+        var connection = DataSourceUtils.getConnection(dataSource);
+        try (var session =
+                sessionFactory
+                        .withStatelessOptions()
+                        .connection(connection)
+                        .openStatelessSession()) {
+            var criteriaBuilder = session.getCriteriaBuilder();
+            var query = criteriaBuilder.createQuery(Device.class);
+            var root = query.from(Device.class);
+            if (spec != null) {
+                var predicate = spec.toPredicate(root, query, criteriaBuilder);
+                if (predicate != null) {
+                    query.where(predicate);
+                }
+            }
+            try (var devices =
+                    session.createQuery(query).setFetchSize(fetchSize).getResultStream()) {
+                devices.forEach(action);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @Override
+    public List<Device> findAllSkipLocked(Specification<Device> spec, int limit) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Device.class);
+        var root = query.from(Device.class);
+        var predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        // rows locked by another transaction are passed over instead of waited on, so concurrent
+        // callers each walk away with a different set of rows
+        return entityManager
+                .createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(SpecHints.HINT_SPEC_LOCK_TIMEOUT, LockOptions.SKIP_LOCKED)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Optional<Device> transitionState(
+            UUID id, DeviceState from, DeviceState to, Instant updatedAt) {
+        // the state condition makes concurrent claimants serialize on the row lock: the first
+        // one wins and every later one matches nothing once it sees the committed state
+        var devices =
+                jdbcTemplate.query(
+                        TRANSITION_STATE_SQL,
+                        DeviceRowMapper.INSTANCE,
+                        to.name(),
+                        Timestamp.from(updatedAt),
+                        id,
+                        from.name());
+        return devices.stream().findFirst();
+    }
+
+    @Override
+    public Optional<Device> patch(
+            UUID id, Device changes, Long expectedVersion, Instant updatedAt) {
+        var columns = new LinkedHashMap<String, Object>();
+        if (changes.getDisplayName() != null) {
+            columns.put("display_name", changes.getDisplayName());
+            columns.put("name", changes.getName());
+        }
+        if (changes.getDisplayBrand() != null) {
+            columns.put("display_brand", changes.getDisplayBrand());
+            columns.put("brand", changes.getBrand());
+        }
+        if (changes.getState() != null) {
+            columns.put("state", changes.getState().name());
+        }
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to update for device: " + id);
+        }
+
+        // like Hibernate's dirty check, writing back the current values bumps neither the version
+        // nor updated_at; SET expressions see the row as it was before the update
+        var changed =
+                columns.keySet().stream()
+                        .map(column -> column + " IS DISTINCT FROM ?")
+                        .collect(Collectors.joining(" OR ", "(", ")"));
+        var sql = new StringBuilder("UPDATE devices SET ");
+        var args = new ArrayList<Object>();
+        columns.forEach(
+                (column, value) -> {
+                    sql.append(column).append(" = ?, ");
+                    args.add(value);
+                });
+        sql.append("updated_at = CASE WHEN ").append(changed).append(" THEN ? ELSE updated_at END");
+        args.addAll(columns.values());
+        args.add(Timestamp.from(updatedAt));
+        sql.append(", version = CASE WHEN ")
+                .append(changed)
+                .append(" THEN version + 1 ELSE version END");
+        args.addAll(columns.values());
+
+        sql.append(" WHERE id = ? AND deleted_at IS NULL");
+        args.add(id);
+        if (expectedVersion != null) {
+            sql.append(" AND version = ?");
+            args.add(expectedVersion);
+        }
+        // a device in use keeps its name and brand; only their display spelling may change
+        var identity = new ArrayList<String>();
+        if (changes.getName() != null) {
+            identity.add("name = ?");
+            args.add(changes.getName());
+        }
+        if (changes.getBrand() != null) {
+            identity.add("brand = ?");
+            args.add(changes.getBrand());
+        }
+        if (!identity.isEmpty()) {
+            sql.append(" AND (state <> 'IN_USE' OR (")
+                    .append(String.join(" AND ", identity))
+                    .append("))");
+        }
+        sql.append(" RETURNING *");
+
+        var devices =
+                jdbcTemplate.query(sql.toString(), DeviceRowMapper.INSTANCE, args.toArray());
+        return devices.stream().findFirst();
+    }
+
+    @Override
+    public List<Device> updateStateAll(
+            List<DeviceVersion> targets, DeviceState state, Instant updatedAt) {
+        return updateAll(UPDATE_STATE_SQL, targets, state.name(), Timestamp.from(updatedAt));
+    }
+
+    @Override
+    public List<Device> softDeleteAll(List<DeviceVersion> targets, Instant deletedAt) {
+        var timestamp = Timestamp.from(deletedAt);
+        return updateAll(SOFT_DELETE_SQL, targets, timestamp, timestamp);
+    }
+
+    @Override
+    public void announceBulkChange() {
+        jdbcTemplate.execute(ANNOUNCE_BULK_CHANGE_SQL);
+    }
+
+    // one statement for the whole set: ids and expected versions travel as two parallel arrays,
+    // sorted by id so that concurrent batches lock the rows they share in the same order
+    private List<Device> updateAll(
+            String sql, List<DeviceVersion> targets, Object firstValue, Object secondValue) {
+        if (targets.isEmpty()) {
+            return List.of();
+        }
+        var sorted = targets.stream().sorted(BY_ID).toList();
+        var ids = sorted.stream().map(DeviceVersion::id).toArray(UUID[]::new);
+        var versions = sorted.stream().map(DeviceVersion::expectedVersion).toArray(Long[]::new);
+        return jdbcTemplate.query(
+                connection -> {
+                    var statement = connection.prepareStatement(sql);
+                    statement.setObject(1, firstValue);
+                    statement.setObject(2, secondValue);
+                    statement.setArray(3, connection.createArrayOf("uuid", ids));
+                    statement.setArray(4, connection.createArrayOf("int8", versions));
+                    return statement;
+                },
+                DeviceRowMapper.INSTANCE);
+    }
+
+    @Override
+    public int archiveDeleted(Instant deletedBefore, int limit, Instant archivedAt) {
+        return jdbcTemplate.update(
+                ARCHIVE_DELETED_SQL,
+                Timestamp.from(deletedBefore),
+                limit,
+                Timestamp.from(archivedAt));
+    }
+
+    @Override
+    @Transactional
+    public int relayOutbox(int limit, Consumer<List<DeviceOutboxEvent>> publisher) {
+        var events =
+                new ArrayList<>(
+                        jdbcTemplate.query(
+                                RELAY_OUTBOX_SQL,
+                                (rs, rowNum) ->
+                                        new DeviceOutboxEvent(
+                                                rs.getLong("id"),
+                                                rs.getObject("device_id", UUID.class),
+                                                rs.getString("type"),
+                                                rs.getString("payload"),
+                                                rs.getTimestamp("created_at").toInstant()),
+                                limit));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        // RETURNING does not keep the order of the subquery
+        events.sort(Comparator.comparingLong(DeviceOutboxEvent::id));
+        // the deleted rows stay locked until the publisher is done, so nobody else relays them
+        publisher.accept(events);
+        return events.size();
+    }
+
+    // not read-only: a lagging replica would still list events that were relayed already
+    @Override
+    public Optional<Instant> findOldestOutboxEventCreatedAt() {
+        return jdbcTemplate
+                .query(
+                        "SELECT created_at FROM device_outbox ORDER BY id LIMIT 1",
+                        (rs, rowNum) -> rs.getTimestamp("created_at").toInstant())
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DeviceStats loadStats() {
+        var byState = new EnumMap<DeviceState, Long>(DeviceState.class);
+        for (var state : DeviceState.values()) {
+            byState.put(state, 0L);
+        }
+        // rows arrive grouped by brand, largest brand first
+        var byBrand = new LinkedHashMap<String, Long>();
+        jdbcTemplate.query(
+                LOAD_STATS_SQL,
+                rs -> {
+                    var count = rs.getLong("device_count");
+                    byState.merge(DeviceState.valueOf(rs.getString("state")), count, Long::sum);
+                    byBrand.merge(rs.getString("brand"), count, Long::sum);
+                });
+        var total = byState.values().stream().mapToLong(Long::longValue).sum();
+        return new DeviceStats(total, byState, byBrand);
+    }
+
+    @Override
+    @Transactional
+    public int reconcileStats() {
+        // two instances counting at once would both add the same correction
+        var locked =
+                jdbcTemplate.queryForObject(
+                        "SELECT pg_try_advisory_xact_lock(hashtext('device_stats'))",
+                        Boolean.class);
+        if (!Boolean.TRUE.equals(locked)) {
+            return -1;
+        }
+        var corrected = jdbcTemplate.update(RECONCILE_STATS_SQL);
+        // stripes that netted out to nothing; a concurrent delta makes the row survive
+        jdbcTemplate.update("DELETE FROM device_stats WHERE device_count = 0");
+        return corrected;
+    }
+
+    @Override
+    public DeviceImportResult importAll(
+            Stream<DeviceImportRow> rows, Instant importedAt, int rejectionLimit) {
+        jdbcTemplate.execute(CREATE_IMPORT_TABLE_SQL);
+        var staged = copyIntoImportTable(rows);
+        // temporary tables are never analyzed automatically
+        jdbcTemplate.execute("ANALYZE device_import");
+
+        var timestamp = Timestamp.from(importedAt);
+        var counts =
+                jdbcTemplate.queryForObject(
+                        MERGE_IMPORT_SQL,
+                        (rs, rowNum) -> new long[] {rs.getLong("inserted"), rs.getLong("updated")},
+                        timestamp,
+                        timestamp);
+        var rejections =
+                jdbcTemplate.query(
+                        IMPORT_REJECTIONS_SQL,
+                        (rs, rowNum) ->
+                                new DeviceImportResult.Rejection(
+                                        rs.getLong("source_row"), rs.getString("error")),
+                        rejectionLimit);
+        return new DeviceImportResult(
+                counts[0], counts[1], staged - counts[0] - counts[1], rejections);
+    }
+
+    // streams the rows through COPY in chunks, so the file is never held in memory as a whole
+    private long copyIntoImportTable(Stream<DeviceImportRow> rows) {
+        var dataSource = jdbcTemplate.getDataSource();
+        var connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            var copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_IMPORT_SQL);
+            try {
+                var buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+                for (var iterator = rows.iterator(); iterator.hasNext(); ) {
+                    appendCsv(buffer, iterator.next());
+                    if (buffer.length() >= COPY_BUFFER_CHARS) {
+                        writeToCopy(copyIn, buffer);
+                    }
+                }
+                writeToCopy(copyIn, buffer);
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        } catch (SQLException ex) {
+            var translated =
+                    jdbcTemplate.getExceptionTranslator().translate("COPY", COPY_IMPORT_SQL, ex);
+            throw translated != null
+                    ? translated
+                    : new UncategorizedSQLException("COPY", COPY_IMPORT_SQL, ex);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        var bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static void appendCsv(StringBuilder buffer, DeviceImportRow row) {
+        var device = row.device();
+        buffer.append(row.row()).append(',');
+        // an unquoted empty field is NULL in COPY's csv format
+        if (device.getId() != null) {
+            buffer.append(device.getId());
+        }
+        for (var value :
+                new String[] {
+                    device.getDisplayName(),
+                    device.getDisplayBrand(),
+                    device.getName(),
+                    device.getBrand(),
+                    device.getState().name()
+                }) {
+            buffer.append(",\"").append(value.replace("\"", "\"\"")).append('"');
+        }
+        buffer.append('\n');
+    }
+}
@@ -0,0 +1,16 @@
+-- Imports, batch creates and bulk operations set gadgetry.bulk_change for their transaction and
+-- send a single reset on device_changes instead: a notification per row would flood change feed
+-- subscribers and the response cache of every instance. The outbox and stats triggers still see
+-- every row.
+CREATE OR REPLACE TRIGGER trg_devices_notify_change
+    AFTER UPDATE OR DELETE ON devices
+    FOR EACH ROW
+    WHEN (OLD.deleted_at IS NULL
+          AND current_setting('gadgetry.bulk_change', true) IS DISTINCT FROM 'on')
+    EXECUTE FUNCTION notify_device_change();
+
+CREATE OR REPLACE TRIGGER trg_devices_notify_insert
+    AFTER INSERT ON devices
+    FOR EACH ROW
+    WHEN (current_setting('gadgetry.bulk_change', true) IS DISTINCT FROM 'on')
+    EXECUTE FUNCTION notify_device_change();
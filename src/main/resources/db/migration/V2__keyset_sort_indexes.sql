@@ -0,0 +1,12 @@
+-- Every listing query filters on deleted_at IS NULL and orders by one of the sort fields with id
+-- as tie-breaker, so keyset pages can seek directly into these indexes (scanned backward for DESC).
+DROP INDEX idx_devices_name;
+DROP INDEX idx_devices_brand;
+DROP INDEX idx_devices_state;
+DROP INDEX idx_devices_created_at;
+
+CREATE INDEX idx_devices_created_at_id ON devices(created_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_updated_at_id ON devices(updated_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_name_id ON devices(name, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_brand_id ON devices(brand, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_state_id ON devices(state, id) WHERE deleted_at IS NULL;
@@ -0,0 +1,6 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Back substring (LIKE '%term%') and word similarity (term <% column) matching on the normalized
+-- search columns.
+CREATE INDEX idx_devices_name_trgm ON devices USING gin (name gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_brand_trgm ON devices USING gin (brand gin_trgm_ops) WHERE deleted_at IS NULL;
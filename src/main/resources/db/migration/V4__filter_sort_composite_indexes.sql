@@ -0,0 +1,7 @@
+-- State is the only equality filter of the listing, so it leads composite indexes that also carry
+-- the sort column and id tie-breaker: filtered pages and keyset cursors stop after LIMIT rows.
+-- Name and brand are substring filters served by the trigram indexes from V3.
+CREATE INDEX idx_devices_state_created_at_id ON devices(state, created_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_state_updated_at_id ON devices(state, updated_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_state_name_id ON devices(state, name, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_state_brand_id ON devices(state, brand, id) WHERE deleted_at IS NULL;
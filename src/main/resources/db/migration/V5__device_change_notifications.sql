@@ -0,0 +1,21 @@
+-- Publishes every committed change of a device row on the device_changes channel, whichever code
+-- path wrote it. Notifications are transactional: listeners only see them after commit.
+CREATE FUNCTION notify_device_change() RETURNS trigger AS $$
+DECLARE
+    changed devices%ROWTYPE;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        changed := OLD;
+    ELSE
+        changed := NEW;
+    END IF;
+    PERFORM pg_notify(
+        'device_changes',
+        json_build_object('id', changed.id, 'version', changed.version, 'operation', TG_OP)::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_devices_notify_change
+    AFTER UPDATE OR DELETE ON devices
+    FOR EACH ROW EXECUTE FUNCTION notify_device_change();
@@ -0,0 +1,26 @@
+-- Soft-deleted devices past their retention window are moved here by DeviceArchiver, so the live
+-- table and its indexes only carry rows that can still be read.
+CREATE TABLE devices_archive (
+    id                  UUID PRIMARY KEY,
+    display_name        VARCHAR(255) NOT NULL,
+    display_brand       VARCHAR(100) NOT NULL,
+    name                VARCHAR(255) NOT NULL,
+    brand               VARCHAR(100) NOT NULL,
+    state               VARCHAR(20) NOT NULL,
+    created_at          TIMESTAMP NOT NULL,
+    updated_at          TIMESTAMP NOT NULL,
+    deleted_at          TIMESTAMP NOT NULL,
+    version             BIGINT NOT NULL,
+    archived_at         TIMESTAMP NOT NULL
+);
+
+-- The archiver walks deleted rows oldest first; the existing deleted_at index only covers live rows.
+CREATE INDEX idx_devices_deleted_at_expired ON devices(deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Rows leaving the table were already announced when they were soft-deleted.
+DROP TRIGGER trg_devices_notify_change ON devices;
+CREATE TRIGGER trg_devices_notify_change
+    AFTER UPDATE OR DELETE ON devices
+    FOR EACH ROW
+    WHEN (OLD.deleted_at IS NULL)
+    EXECUTE FUNCTION notify_device_change();
@@ -0,0 +1,29 @@
+-- The change feed renders and filters events from the notification alone, so the payload carries
+-- the public fields of the row, and creations are announced as well.
+CREATE OR REPLACE FUNCTION notify_device_change() RETURNS trigger AS $$
+DECLARE
+    changed devices%ROWTYPE;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        changed := OLD;
+    ELSE
+        changed := NEW;
+    END IF;
+    PERFORM pg_notify(
+        'device_changes',
+        json_build_object(
+            'id', changed.id,
+            'version', changed.version,
+            'operation', TG_OP,
+            'displayName', changed.display_name,
+            'displayBrand', changed.display_brand,
+            'brand', changed.brand,
+            'state', changed.state,
+            'deleted', TG_OP = 'DELETE' OR changed.deleted_at IS NOT NULL)::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_devices_notify_insert
+    AFTER INSERT ON devices
+    FOR EACH ROW EXECUTE FUNCTION notify_device_change();
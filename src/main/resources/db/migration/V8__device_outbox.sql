@@ -0,0 +1,58 @@
+-- Every committed device change, recorded by the statement that makes it, for DeviceOutboxRelay
+-- to hand to downstream consumers. Rows are deleted once relayed.
+CREATE TABLE device_outbox (
+    id                  BIGSERIAL PRIMARY KEY,
+    device_id           UUID NOT NULL,
+    type                VARCHAR(10) NOT NULL,
+    payload             JSONB NOT NULL,
+    created_at          TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Rows are inserted and deleted at the same rate, so vacuum runs on a fixed number of dead rows
+-- instead of waiting for a fraction of a table that is normally almost empty.
+ALTER TABLE device_outbox
+    SET (autovacuum_vacuum_scale_factor = 0, autovacuum_vacuum_threshold = 1000);
+
+CREATE FUNCTION record_device_change() RETURNS trigger AS $$
+DECLARE
+    changed devices%ROWTYPE;
+    change_type TEXT;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        changed := NEW;
+        change_type := 'CREATED';
+    ELSE
+        -- rows leaving the table were recorded when they were soft-deleted, and an update that
+        -- matched without changing anything keeps its version
+        IF OLD.deleted_at IS NOT NULL OR (TG_OP = 'UPDATE' AND NEW.version = OLD.version) THEN
+            RETURN NULL;
+        END IF;
+        IF TG_OP = 'DELETE' THEN
+            changed := OLD;
+        ELSE
+            changed := NEW;
+        END IF;
+        IF TG_OP = 'DELETE' OR changed.deleted_at IS NOT NULL THEN
+            change_type := 'DELETED';
+        ELSE
+            change_type := 'UPDATED';
+        END IF;
+    END IF;
+    INSERT INTO device_outbox (device_id, type, payload)
+    VALUES (
+        changed.id,
+        change_type,
+        jsonb_build_object(
+            'type', change_type,
+            'id', changed.id,
+            'version', changed.version,
+            'displayName', changed.display_name,
+            'displayBrand', changed.display_brand,
+            'state', changed.state));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_devices_outbox
+    AFTER INSERT OR UPDATE OR DELETE ON devices
+    FOR EACH ROW EXECUTE FUNCTION record_device_change();
@@ -0,0 +1,83 @@
+-- Live device counts per brand and state, kept current by the statements that change devices so
+-- that /api/devices/stats reads a few hundred rows instead of counting the catalog. A count is
+-- split over 16 stripes, one per transaction by its id, so concurrent writes to the same brand
+-- and state rarely wait for the same row; readers sum the stripes.
+CREATE TABLE device_stats (
+    brand               VARCHAR(100) NOT NULL,
+    state               VARCHAR(20) NOT NULL,
+    stripe              SMALLINT NOT NULL,
+    device_count        BIGINT NOT NULL,
+
+    PRIMARY KEY (brand, state, stripe)
+);
+
+-- Statement-level, so an import or bulk operation adds one delta per brand and state rather
+-- than one per device. Soft-deleted rows are not counted, which also makes archival a no-op.
+CREATE FUNCTION count_device_changes() RETURNS trigger AS $$
+DECLARE
+    deltas device_stats[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(ROW(brand, state, 0::smallint, n)::device_stats) INTO deltas
+        FROM (
+            SELECT brand, state, count(*) AS n
+            FROM new_rows
+            WHERE deleted_at IS NULL
+            GROUP BY brand, state
+        ) AS counted;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(ROW(brand, state, 0::smallint, -n)::device_stats) INTO deltas
+        FROM (
+            SELECT brand, state, count(*) AS n
+            FROM old_rows
+            WHERE deleted_at IS NULL
+            GROUP BY brand, state
+        ) AS counted;
+    ELSE
+        SELECT array_agg(ROW(brand, state, 0::smallint, n)::device_stats) INTO deltas
+        FROM (
+            SELECT brand, state, sum(delta) AS n
+            FROM (
+                SELECT brand, state, 1 AS delta FROM new_rows WHERE deleted_at IS NULL
+                UNION ALL
+                SELECT brand, state, -1 AS delta FROM old_rows WHERE deleted_at IS NULL
+            ) AS changes
+            GROUP BY brand, state
+        ) AS counted
+        WHERE n <> 0;
+    END IF;
+    IF deltas IS NULL THEN
+        RETURN NULL;
+    END IF;
+    -- in key order, so that two transactions on the same stripe never lock rows in opposite order
+    INSERT INTO device_stats (brand, state, stripe, device_count)
+    SELECT brand, state, (txid_current() % 16)::smallint, device_count
+    FROM unnest(deltas)
+    ORDER BY brand, state
+    ON CONFLICT (brand, state, stripe)
+        DO UPDATE SET device_count = device_stats.device_count + EXCLUDED.device_count;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- transition tables are only allowed on triggers for a single event
+CREATE TRIGGER trg_devices_stats_insert
+    AFTER INSERT ON devices
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION count_device_changes();
+
+CREATE TRIGGER trg_devices_stats_update
+    AFTER UPDATE ON devices
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION count_device_changes();
+
+CREATE TRIGGER trg_devices_stats_delete
+    AFTER DELETE ON devices
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION count_device_changes();
+
+INSERT INTO device_stats (brand, state, stripe, device_count)
+SELECT brand, state, 0, count(*)
+FROM devices
+WHERE deleted_at IS NULL
+GROUP BY brand, state;
@@ -0,0 +1,65 @@
+-- Opt-in (profile "partitioned"): turns devices into a hash-partitioned table on id.
+-- Hash on id keeps id as the primary key, so every lookup and conditional update by id is pruned to
+-- one partition. Listing queries carry no id and read all partitions, each through its own small
+-- copy of the indexes below; vacuum and index maintenance then work one partition at a time.
+-- List partitioning on state was rejected: the key would have to join the primary key, lookups by
+-- id could no longer be pruned, and every checkout would move its row between partitions.
+CREATE TABLE devices_partitioned (
+    id                  UUID NOT NULL DEFAULT gen_random_uuid(),
+    display_name        VARCHAR(255) NOT NULL,
+    display_brand       VARCHAR(100) NOT NULL,
+    name                VARCHAR(255) NOT NULL,
+    brand               VARCHAR(100) NOT NULL,
+    state               VARCHAR(20) NOT NULL,
+    created_at          TIMESTAMP NOT NULL,
+    updated_at          TIMESTAMP NOT NULL,
+    deleted_at          TIMESTAMP,
+    version             BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT chk_state CHECK (state IN ('AVAILABLE', 'IN_USE', 'INACTIVE'))
+) PARTITION BY HASH (id);
+
+DO $$
+BEGIN
+    FOR i IN 0..${device_partitions} - 1 LOOP
+        EXECUTE format(
+            'CREATE TABLE devices_p%s PARTITION OF devices_partitioned'
+                || ' FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+            lpad(i::text, 2, '0'), ${device_partitions}, i);
+    END LOOP;
+END;
+$$;
+
+-- copy before indexing: building each index once is far cheaper than maintaining it per row
+INSERT INTO devices_partitioned
+SELECT id, display_name, display_brand, name, brand, state, created_at, updated_at, deleted_at,
+       version
+FROM devices;
+
+DROP TABLE devices;
+ALTER TABLE devices_partitioned RENAME TO devices;
+
+ALTER TABLE devices ADD PRIMARY KEY (id);
+
+-- the same indexes as on the unpartitioned table (V1 to V6), created on every partition
+CREATE INDEX idx_devices_deleted_at ON devices(deleted_at) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_created_at_id ON devices(created_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_updated_at_id ON devices(updated_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_name_id ON devices(name, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_brand_id ON devices(brand, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_state_id ON devices(state, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_name_trgm ON devices USING gin (name gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_brand_trgm ON devices USING gin (brand gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_state_created_at_id ON devices(state, created_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_state_updated_at_id ON devices(state, updated_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_state_name_id ON devices(state, name, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_state_brand_id ON devices(state, brand, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_devices_deleted_at_expired ON devices(deleted_at) WHERE deleted_at IS NOT NULL;
+
+CREATE TRIGGER trg_devices_notify_change
+    AFTER UPDATE OR DELETE ON devices
+    FOR EACH ROW
+    WHEN (OLD.deleted_at IS NULL)
+    EXECUTE FUNCTION notify_device_change();
+
+ANALYZE devices;
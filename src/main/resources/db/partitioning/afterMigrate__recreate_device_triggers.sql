@@ -0,0 +1,73 @@
+-- Flyway callback, run after every migrate with the "partitioned" profile. V6_1 replaces devices,
+-- and the triggers later migrations put on it go with the old table when V6_1 runs out of order on
+-- a database already past V6. This puts back whichever are missing or out of date, so V6_1 itself
+-- never has to change. Keep the definitions in step with the latest migration that touches each
+-- trigger.
+DO $$
+BEGIN
+    -- V10; V6_1 recreates this one as V6 defined it
+    IF NOT EXISTS (
+        SELECT FROM pg_trigger
+        WHERE tgrelid = 'devices'::regclass AND tgname = 'trg_devices_notify_change'
+          AND pg_get_triggerdef(oid) LIKE '%gadgetry.bulk_change%'
+    ) THEN
+        CREATE OR REPLACE TRIGGER trg_devices_notify_change
+            AFTER UPDATE OR DELETE ON devices
+            FOR EACH ROW
+            WHEN (OLD.deleted_at IS NULL
+                  AND current_setting('gadgetry.bulk_change', true) IS DISTINCT FROM 'on')
+            EXECUTE FUNCTION notify_device_change();
+    END IF;
+
+    -- V10
+    IF NOT EXISTS (
+        SELECT FROM pg_trigger
+        WHERE tgrelid = 'devices'::regclass AND tgname = 'trg_devices_notify_insert'
+    ) THEN
+        CREATE TRIGGER trg_devices_notify_insert
+            AFTER INSERT ON devices
+            FOR EACH ROW
+            WHEN (current_setting('gadgetry.bulk_change', true) IS DISTINCT FROM 'on')
+            EXECUTE FUNCTION notify_device_change();
+    END IF;
+
+    -- V8
+    IF NOT EXISTS (
+        SELECT FROM pg_trigger
+        WHERE tgrelid = 'devices'::regclass AND tgname = 'trg_devices_outbox'
+    ) THEN
+        CREATE TRIGGER trg_devices_outbox
+            AFTER INSERT OR UPDATE OR DELETE ON devices
+            FOR EACH ROW EXECUTE FUNCTION record_device_change();
+    END IF;
+
+    -- V9
+    IF NOT EXISTS (
+        SELECT FROM pg_trigger
+        WHERE tgrelid = 'devices'::regclass AND tgname = 'trg_devices_stats_insert'
+    ) THEN
+        CREATE TRIGGER trg_devices_stats_insert
+            AFTER INSERT ON devices
+            REFERENCING NEW TABLE AS new_rows
+            FOR EACH STATEMENT EXECUTE FUNCTION count_device_changes();
+    END IF;
+    IF NOT EXISTS (
+        SELECT FROM pg_trigger
+        WHERE tgrelid = 'devices'::regclass AND tgname = 'trg_devices_stats_update'
+    ) THEN
+        CREATE TRIGGER trg_devices_stats_update
+            AFTER UPDATE ON devices
+            REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+            FOR EACH STATEMENT EXECUTE FUNCTION count_device_changes();
+    END IF;
+    IF NOT EXISTS (
+        SELECT FROM pg_trigger
+        WHERE tgrelid = 'devices'::regclass AND tgname = 'trg_devices_stats_delete'
+    ) THEN
+        CREATE TRIGGER trg_devices_stats_delete
+            AFTER DELETE ON devices
+            REFERENCING OLD TABLE AS old_rows
+            FOR EACH STATEMENT EXECUTE FUNCTION count_device_changes();
+    END IF;
+END
+$$;
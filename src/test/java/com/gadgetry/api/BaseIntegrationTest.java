@@ -1,9 +1,15 @@
 package com.gadgetry.api;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.api.dto.DeviceResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
@@ -34,9 +40,23 @@ abstract class BaseIntegrationTest {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
+        // tests relay the outbox themselves, into their own sink
+        registry.add("gadgetry.outbox.relay.enabled", () -> "false");
     }
 
     @Autowired protected MockMvc mockMvc;
 
     @Autowired protected ObjectMapper objectMapper;
+
+    protected DeviceResponse createDevice(DeviceCreateRequest request) throws Exception {
+        var result =
+                mockMvc.perform(
+                                post("/api/devices")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(request)))
+                        .andExpect(status().isCreated())
+                        .andReturn();
+        return objectMapper.readValue(
+                result.getResponse().getContentAsString(), DeviceResponse.class);
+    }
 }
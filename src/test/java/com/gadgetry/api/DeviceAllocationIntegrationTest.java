@@ -0,0 +1,86 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.api.dto.DeviceResponse;
+import com.gadgetry.domain.model.DeviceState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class DeviceAllocationIntegrationTest extends BaseIntegrationTest {
+
+    @Test
+    void shouldAllocateOnlyAvailableMatchingDevices() throws Exception {
+        // given
+        createDevice(new DeviceCreateRequest("Scanner A", "Zebra", DeviceState.AVAILABLE));
+        createDevice(new DeviceCreateRequest("Scanner B", "Zebra", DeviceState.IN_USE));
+        createDevice(new DeviceCreateRequest("Scanner C", "Zebra", DeviceState.INACTIVE));
+        createDevice(new DeviceCreateRequest("Scanner D", "Honeywell", DeviceState.AVAILABLE));
+
+        // when & then
+        mockMvc.perform(post("/api/devices/allocate").param("brand", "zebra").param("count", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].displayName").value("Scanner A"))
+                .andExpect(jsonPath("$[0].state").value("IN_USE"));
+        mockMvc.perform(post("/api/devices/allocate").param("brand", "zebra"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/devices").param("state", "AVAILABLE"))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].displayBrand").value("Honeywell"));
+    }
+
+    @Test
+    void shouldHandOutEachDeviceToOneAllocator() throws Exception {
+        // given
+        for (var i = 0; i < 6; i++) {
+            createDevice(new DeviceCreateRequest("Scanner " + i, "Zebra", DeviceState.AVAILABLE));
+        }
+        var allocators = new ArrayList<Callable<List<DeviceResponse>>>();
+        for (var i = 0; i < 8; i++) {
+            allocators.add(this::allocateOne);
+        }
+
+        // when
+        var allocated = new ArrayList<DeviceResponse>();
+        try (var executor = Executors.newFixedThreadPool(allocators.size())) {
+            for (var future : executor.invokeAll(allocators)) {
+                allocated.addAll(future.get());
+            }
+        }
+
+        // then
+        // an allocator may come back empty-handed while the others hold their locks, but no
+        // device may ever be handed out twice or lost
+        assertThat(allocated).isNotEmpty();
+        assertThat(allocated).extracting(DeviceResponse::id).doesNotHaveDuplicates();
+        mockMvc.perform(get("/api/devices").param("state", "AVAILABLE"))
+                .andExpect(jsonPath("$.totalElements").value(6 - allocated.size()));
+    }
+
+    @Test
+    void shouldRejectInvalidCount() throws Exception {
+        // when & then
+        mockMvc.perform(post("/api/devices/allocate").param("count", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<DeviceResponse> allocateOne() throws Exception {
+        var result =
+                mockMvc.perform(post("/api/devices/allocate").param("brand", "zebra"))
+                        .andExpect(status().isOk())
+                        .andReturn();
+        return objectMapper.readValue(
+                result.getResponse().getContentAsString(), new TypeReference<>() {});
+    }
+}
@@ -0,0 +1,153 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.domain.service.DeviceArchiver;
+import com.gadgetry.persistence.repository.DeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class DeviceArchivalIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private DeviceArchiver deviceArchiver;
+
+    @Autowired private DeviceRepository deviceRepository;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private Clock clock;
+
+    @Test
+    void shouldArchiveDevicesDeletedBeforeRetention() throws Exception {
+        // given
+        var expired = createAndDelete("Pixel 7");
+        var recent = createAndDelete("Pixel 8");
+        var live =
+                createDevice(
+                        new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE)).id();
+        ageDeletion(expired, Duration.ofDays(31));
+
+        // when
+        var archived = deviceArchiver.archiveExpired();
+
+        // then
+        assertThat(archived).isEqualTo(1);
+        assertThat(archivedIds()).containsExactly(expired);
+        assertThat(storedIds()).containsExactlyInAnyOrder(recent, live);
+        assertThat(
+                        jdbcTemplate.queryForObject(
+                                "SELECT display_name FROM devices_archive WHERE id = ?",
+                                String.class,
+                                expired))
+                .isEqualTo("Pixel 7");
+    }
+
+    @Test
+    void shouldArchiveInBatches() throws Exception {
+        // given
+        for (var i = 0; i < 5; i++) {
+            ageDeletion(createAndDelete("Pixel " + i), Duration.ofDays(40));
+        }
+        var meterRegistry = new SimpleMeterRegistry();
+        var archiver =
+                new DeviceArchiver(
+                        deviceRepository,
+                        clock,
+                        meterRegistry,
+                        Duration.ofDays(30),
+                        2,
+                        Duration.ZERO);
+
+        // when
+        var archived = archiver.archiveExpired();
+
+        // then
+        assertThat(archived).isEqualTo(5);
+        assertThat(archivedIds()).hasSize(5);
+        assertThat(meterRegistry.get("gadgetry.archival.batch").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("gadgetry.archival.devices").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldRejectImportOfArchivedDeviceAndArchiveItAgain() throws Exception {
+        // given
+        var archived = createAndDelete("Pixel 7");
+        ageDeletion(archived, Duration.ofDays(31));
+        deviceArchiver.archiveExpired();
+
+        // when
+        mockMvc.perform(
+                        post("/api/devices/import")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(
+                                        "{\"id\": \""
+                                                + archived
+                                                + "\", \"displayName\": \"Pixel 7a\","
+                                                + " \"displayBrand\": \"Google\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(0))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejections[0].error").value("Device was deleted"));
+
+        // then
+        assertThat(storedIds()).isEmpty();
+
+        // given a copy an earlier import re-created before archived ids were rejected
+        jdbcTemplate.update(
+                "INSERT INTO devices (id, display_name, display_brand, name, brand, state,"
+                        + " created_at, updated_at, version)"
+                        + " VALUES (?, 'Pixel 7a', 'Google', 'pixel 7a', 'google', 'AVAILABLE',"
+                        + " now(), now(), 0)",
+                archived);
+        mockMvc.perform(delete("/api/devices/" + archived)).andExpect(status().isNoContent());
+        ageDeletion(archived, Duration.ofDays(31));
+
+        // when
+        var rearchived = deviceArchiver.archiveExpired();
+
+        // then
+        assertThat(rearchived).isEqualTo(1);
+        assertThat(archivedIds()).containsExactly(archived);
+        assertThat(storedIds()).isEmpty();
+        assertThat(
+                        jdbcTemplate.queryForObject(
+                                "SELECT display_name FROM devices_archive WHERE id = ?",
+                                String.class,
+                                archived))
+                .isEqualTo("Pixel 7a");
+    }
+
+    private UUID createAndDelete(String name) throws Exception {
+        var id = createDevice(new DeviceCreateRequest(name, "Google", DeviceState.AVAILABLE)).id();
+        mockMvc.perform(delete("/api/devices/" + id)).andExpect(status().isNoContent());
+        return id;
+    }
+
+    private void ageDeletion(UUID id, Duration age) {
+        jdbcTemplate.update(
+                "UPDATE devices SET deleted_at = deleted_at - ? * interval '1 second' WHERE id = ?",
+                age.toSeconds(),
+                id);
+    }
+
+    private List<UUID> archivedIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM devices_archive", UUID.class);
+    }
+
+    private List<UUID> storedIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM devices", UUID.class);
+    }
+}
@@ -0,0 +1,78 @@
+package com.gadgetry.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class DeviceBatchCreateIntegrationTest extends BaseIntegrationTest {
+
+    @Test
+    void shouldCreateAllValidItems() throws Exception {
+        // given
+        var requests = new ArrayList<DeviceCreateRequest>();
+        for (var i = 0; i < 120; i++) {
+            requests.add(new DeviceCreateRequest("Scanner " + i, " Zebra ", null));
+        }
+
+        // when
+        mockMvc.perform(
+                        post("/api/devices/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(120))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].device.displayBrand").value("Zebra"))
+                .andExpect(jsonPath("$.results[0].device.state").value("AVAILABLE"));
+
+        // then
+        mockMvc.perform(get("/api/devices").param("brand", "zebra"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(120));
+    }
+
+    @Test
+    void shouldReportInvalidItemsWithoutFailingBatch() throws Exception {
+        // given
+        var requests =
+                List.of(
+                        new DeviceCreateRequest("Scanner A", "Zebra", DeviceState.AVAILABLE),
+                        new DeviceCreateRequest("", "Zebra", DeviceState.AVAILABLE),
+                        new DeviceCreateRequest("Scanner C", "Zebra", DeviceState.IN_USE));
+
+        // when & then
+        mockMvc.perform(
+                        post("/api/devices/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[1].errors.displayName").exists())
+                .andExpect(jsonPath("$.results[1].device").doesNotExist())
+                .andExpect(jsonPath("$.results[2].device.state").value("IN_USE"));
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() throws Exception {
+        // when & then
+        mockMvc.perform(
+                        post("/api/devices/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(Collections.emptyList())))
+                .andExpect(status().isBadRequest());
+    }
+}
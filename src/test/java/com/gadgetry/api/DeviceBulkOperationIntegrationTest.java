@@ -0,0 +1,112 @@
+package com.gadgetry.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceBulkOperationRequest;
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceBulkCommand.Operation;
+import com.gadgetry.domain.model.DeviceState;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class DeviceBulkOperationIntegrationTest extends BaseIntegrationTest {
+
+    @Test
+    void shouldApplyStateChangesAndDeletes() throws Exception {
+        // given
+        var first =
+                createDevice(new DeviceCreateRequest("Scanner A", "Zebra", DeviceState.AVAILABLE));
+        var second =
+                createDevice(new DeviceCreateRequest("Scanner B", "Zebra", DeviceState.IN_USE));
+        var retired =
+                createDevice(new DeviceCreateRequest("Scanner C", "Zebra", DeviceState.INACTIVE));
+        var requests =
+                List.of(
+                        new DeviceBulkOperationRequest(
+                                first.id(), 0L, Operation.SET_STATE, DeviceState.INACTIVE),
+                        new DeviceBulkOperationRequest(
+                                second.id(), null, Operation.SET_STATE, DeviceState.INACTIVE),
+                        new DeviceBulkOperationRequest(retired.id(), 0L, Operation.DELETE, null));
+
+        // when
+        mockMvc.perform(
+                        post("/api/devices/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(3))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[0].device.state").value("INACTIVE"))
+                .andExpect(jsonPath("$.results[0].device.version").value(1))
+                .andExpect(jsonPath("$.results[1].device.state").value("INACTIVE"))
+                .andExpect(jsonPath("$.results[2].status").value(200));
+
+        // then
+        mockMvc.perform(get("/api/devices/" + first.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("INACTIVE"));
+        mockMvc.perform(get("/api/devices/" + retired.id())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReportConflictsPerItem() throws Exception {
+        // given
+        var available =
+                createDevice(new DeviceCreateRequest("Scanner A", "Zebra", DeviceState.AVAILABLE));
+        var inUse = createDevice(new DeviceCreateRequest("Scanner B", "Zebra", DeviceState.IN_USE));
+        var missing = UUID.randomUUID();
+        var requests =
+                List.of(
+                        new DeviceBulkOperationRequest(inUse.id(), null, Operation.DELETE, null),
+                        new DeviceBulkOperationRequest(
+                                available.id(), 7L, Operation.SET_STATE, DeviceState.IN_USE),
+                        new DeviceBulkOperationRequest(missing, null, Operation.DELETE, null));
+
+        // when & then
+        mockMvc.perform(
+                        post("/api/devices/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(0))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.results[0].status").value(409))
+                .andExpect(
+                        jsonPath("$.results[0].errors.device")
+                                .value("Cannot delete device in use"))
+                .andExpect(jsonPath("$.results[1].status").value(409))
+                .andExpect(
+                        jsonPath("$.results[1].errors.device")
+                                .value("Version conflict: expected 7 but was 0"))
+                .andExpect(jsonPath("$.results[2].status").value(404));
+
+        mockMvc.perform(get("/api/devices/" + inUse.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("IN_USE"));
+    }
+
+    @Test
+    void shouldRejectDuplicateIds() throws Exception {
+        // given
+        var device =
+                createDevice(new DeviceCreateRequest("Scanner A", "Zebra", DeviceState.AVAILABLE));
+        var requests =
+                List.of(
+                        new DeviceBulkOperationRequest(
+                                device.id(), null, Operation.SET_STATE, DeviceState.INACTIVE),
+                        new DeviceBulkOperationRequest(device.id(), null, Operation.DELETE, null));
+
+        // when & then
+        mockMvc.perform(
+                        post("/api/devices/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isBadRequest());
+    }
+}
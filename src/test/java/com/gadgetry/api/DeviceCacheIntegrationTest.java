@@ -0,0 +1,91 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class DeviceCacheIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        var hitsBefore = cacheGets("hit");
+
+        // when
+        mockMvc.perform(get("/api/devices/" + created.id())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/devices/" + created.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.displayName").value("Pixel 9"));
+
+        // then
+        assertThat(cacheGets("hit")).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void shouldReturnOwnUpdateImmediately() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        mockMvc.perform(get("/api/devices/" + created.id())).andExpect(status().isOk());
+
+        // when
+        mockMvc.perform(
+                        patch("/api/devices/" + created.id())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"displayName\": \"Pixel 9 Pro\"}"))
+                .andExpect(status().isOk());
+
+        // then
+        mockMvc.perform(get("/api/devices/" + created.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.displayName").value("Pixel 9 Pro"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void shouldInvalidateOnChangeCommittedElsewhere() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        mockMvc.perform(get("/api/devices/" + created.id())).andExpect(status().isOk());
+
+        // when
+        jdbcTemplate.update(
+                "UPDATE devices SET display_name = 'Pixel 9a', version = version + 1 WHERE id = ?",
+                created.id());
+
+        // then
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(
+                        () ->
+                                mockMvc.perform(get("/api/devices/" + created.id()))
+                                        .andExpect(jsonPath("$.displayName").value("Pixel 9a")));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry
+                .get("cache.gets")
+                .tag("cache", "devices")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
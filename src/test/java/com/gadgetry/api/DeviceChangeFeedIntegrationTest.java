@@ -0,0 +1,188 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceChangeEvent;
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+class DeviceChangeFeedIntegrationTest extends BaseIntegrationTest {
+
+    @Test
+    void shouldPushCreateUpdateAndDelete() throws Exception {
+        // given
+        var feed = subscribe(get("/api/devices/changes"));
+
+        // when
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        mockMvc.perform(
+                        patch("/api/devices/" + created.id())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"state\": \"INACTIVE\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/devices/" + created.id())).andExpect(status().isNoContent());
+
+        // then
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(
+                        () ->
+                                assertThat(eventsFor(feed, created.id()))
+                                        .extracting(SseEvent::name)
+                                        .containsExactly("created", "updated", "deleted"));
+        var updated = change(eventsFor(feed, created.id()).get(1));
+        assertThat(updated.state()).isEqualTo(DeviceState.INACTIVE);
+        assertThat(updated.displayName()).isEqualTo("Pixel 9");
+        assertThat(updated.version()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldOnlyPushChangesMatchingFilters() throws Exception {
+        // given
+        var feed =
+                subscribe(
+                        get("/api/devices/changes")
+                                .param("brand", "zebra")
+                                .param("state", "AVAILABLE"));
+
+        // when
+        var otherBrand =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        var otherState =
+                createDevice(new DeviceCreateRequest("Scanner A", "Zebra", DeviceState.IN_USE));
+        var matching =
+                createDevice(
+                        new DeviceCreateRequest("Scanner B", " ZEBRA ", DeviceState.AVAILABLE));
+
+        // then
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(eventsFor(feed, matching.id())).hasSize(1));
+        assertThat(eventsFor(feed, otherBrand.id())).isEmpty();
+        assertThat(eventsFor(feed, otherState.id())).isEmpty();
+    }
+
+    @Test
+    void shouldResumeAfterLastEventId() throws Exception {
+        // given
+        var feed = subscribe(get("/api/devices/changes"));
+        var first =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(eventsFor(feed, first.id())).hasSize(1));
+        var lastEventId = eventsFor(feed, first.id()).get(0).id();
+        var second =
+                createDevice(new DeviceCreateRequest("Pixel 9a", "Google", DeviceState.AVAILABLE));
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(eventsFor(feed, second.id())).hasSize(1));
+
+        // when
+        var resumed = subscribe(get("/api/devices/changes").header("Last-Event-ID", lastEventId));
+
+        // then
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(eventsFor(resumed, second.id())).hasSize(1));
+        assertThat(eventsFor(resumed, first.id())).isEmpty();
+        assertThat(events(resumed))
+                .extracting(SseEvent::name)
+                .doesNotContain(DeviceChangeFeed.RESET_EVENT);
+    }
+
+    @Test
+    void shouldAskForReloadWhenResumeIsImpossible() throws Exception {
+        // when
+        var feed = subscribe(get("/api/devices/changes").header("Last-Event-ID", "gone-42"));
+
+        // then
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(
+                        () ->
+                                assertThat(events(feed))
+                                        .extracting(SseEvent::name)
+                                        .contains(DeviceChangeFeed.RESET_EVENT));
+    }
+
+    @Test
+    void shouldSendOneResetForBulkWrites() throws Exception {
+        // given
+        var feed = subscribe(get("/api/devices/changes"));
+        var requests = new ArrayList<DeviceCreateRequest>();
+        for (var i = 0; i < 50; i++) {
+            requests.add(new DeviceCreateRequest("Scanner " + i, "Zebra", DeviceState.AVAILABLE));
+        }
+
+        // when
+        mockMvc.perform(
+                        post("/api/devices/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk());
+
+        // then
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(
+                        () ->
+                                assertThat(events(feed))
+                                        .extracting(SseEvent::name)
+                                        .containsExactly(DeviceChangeFeed.RESET_EVENT));
+    }
+
+    private MvcResult subscribe(MockHttpServletRequestBuilder builder) throws Exception {
+        return mockMvc.perform(builder.accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private List<SseEvent> eventsFor(MvcResult feed, UUID id) throws Exception {
+        var matching = new ArrayList<SseEvent>();
+        for (var event : events(feed)) {
+            if (!DeviceChangeFeed.RESET_EVENT.equals(event.name())
+                    && change(event).id().equals(id)) {
+                matching.add(event);
+            }
+        }
+        return matching;
+    }
+
+    private DeviceChangeEvent change(SseEvent event) throws Exception {
+        return objectMapper.readValue(event.data(), DeviceChangeEvent.class);
+    }
+
+    private static List<SseEvent> events(MvcResult feed) throws Exception {
+        var events = new ArrayList<SseEvent>();
+        for (var block : feed.getResponse().getContentAsString().split("\n\n")) {
+            String id = null;
+            String name = null;
+            String data = null;
+            for (var line : block.split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                } else if (line.startsWith("data:")) {
+                    data = line.substring(5);
+                }
+            }
+            if (name != null) {
+                events.add(new SseEvent(id, name, data));
+            }
+        }
+        return events;
+    }
+
+    private record SseEvent(String id, String name, String data) {}
+}
@@ -0,0 +1,91 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class DeviceCheckoutIntegrationTest extends BaseIntegrationTest {
+
+    @Test
+    void shouldCheckOutAndCheckInDevice() throws Exception {
+        // given
+        var device =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+
+        // when & then
+        mockMvc.perform(post("/api/devices/" + device.id() + "/checkout"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("IN_USE"))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(post("/api/devices/" + device.id() + "/checkin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("AVAILABLE"))
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    void shouldLetExactlyOneConcurrentCheckoutWin() throws Exception {
+        // given
+        var device =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        var claimants = new ArrayList<Callable<Integer>>();
+        for (var i = 0; i < 16; i++) {
+            claimants.add(
+                    () ->
+                            mockMvc.perform(post("/api/devices/" + device.id() + "/checkout"))
+                                    .andReturn()
+                                    .getResponse()
+                                    .getStatus());
+        }
+
+        // when
+        var statuses = new ArrayList<Integer>();
+        try (var executor = Executors.newFixedThreadPool(claimants.size())) {
+            for (var future : executor.invokeAll(claimants)) {
+                statuses.add(future.get());
+            }
+        }
+
+        // then
+        assertThat(statuses).containsOnly(200, 409);
+        assertThat(statuses).filteredOn(status -> status == 200).hasSize(1);
+    }
+
+    @Test
+    void shouldRejectCheckoutOfInactiveDevice() throws Exception {
+        // given
+        var device =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.INACTIVE));
+
+        // when & then
+        mockMvc.perform(post("/api/devices/" + device.id() + "/checkout"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void shouldRejectCheckinOfAvailableDevice() throws Exception {
+        // given
+        var device =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+
+        // when & then
+        mockMvc.perform(post("/api/devices/" + device.id() + "/checkin"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownDevice() throws Exception {
+        // when & then
+        mockMvc.perform(post("/api/devices/" + UUID.randomUUID() + "/checkout"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,159 @@
+package com.gadgetry.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+class DeviceConditionalRequestIntegrationTest extends BaseIntegrationTest {
+
+    @Test
+    void shouldReturnETagOnCreate() throws Exception {
+        // given
+        var request = new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE);
+
+        // when & then
+        mockMvc.perform(
+                        post("/api/devices")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+    }
+
+    @Test
+    void shouldReturnVersionAsETag() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+
+        // when & then
+        mockMvc.perform(get("/api/devices/" + created.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+    }
+
+    @Test
+    void shouldReturnNotModifiedForCurrentETag() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+
+        // when & then
+        mockMvc.perform(
+                        get("/api/devices/" + created.id())
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void shouldReturnDeviceWhenETagIsStale() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        mockMvc.perform(
+                        patch("/api/devices/" + created.id())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"displayName\": \"Pixel 9 Pro\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // when & then
+        mockMvc.perform(
+                        get("/api/devices/" + created.id())
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.displayName").value("Pixel 9 Pro"));
+    }
+
+    @Test
+    void shouldReturnNotFoundOnRevalidationOfMissingDevice() throws Exception {
+        // when & then
+        mockMvc.perform(
+                        get("/api/devices/" + UUID.randomUUID())
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldUpdateWhenIfMatchIsCurrent() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+
+        // when & then
+        mockMvc.perform(
+                        patch("/api/devices/" + created.id())
+                                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"displayName\": \"Pixel 9 Pro\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void shouldRejectUpdateWhenIfMatchIsStale() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        mockMvc.perform(
+                        patch("/api/devices/" + created.id())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"displayName\": \"Pixel 9 Pro\"}"))
+                .andExpect(status().isOk());
+
+        // when & then
+        mockMvc.perform(
+                        patch("/api/devices/" + created.id())
+                                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"displayName\": \"Pixel 9a\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/devices/" + created.id()))
+                .andExpect(jsonPath("$.displayName").value("Pixel 9 Pro"));
+    }
+
+    @Test
+    void shouldRejectDeleteWhenIfMatchIsStale() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+
+        // when & then
+        mockMvc.perform(
+                        delete("/api/devices/" + created.id())
+                                .header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(
+                        delete("/api/devices/" + created.id())
+                                .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void shouldRejectMalformedIfMatch() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+
+        // when & then
+        mockMvc.perform(
+                        delete("/api/devices/" + created.id())
+                                .header(HttpHeaders.IF_MATCH, "zero"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,92 @@
+package com.gadgetry.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class DeviceCountModeIntegrationTest extends BaseIntegrationTest {
+
+    @BeforeEach
+    void createDevices() throws Exception {
+        for (var i = 1; i <= 3; i++) {
+            mockMvc.perform(
+                            post("/api/devices")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(
+                                            objectMapper.writeValueAsString(
+                                                    new DeviceCreateRequest(
+                                                            "Sensor " + i,
+                                                            "Bosch",
+                                                            DeviceState.AVAILABLE))))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    @Test
+    void shouldCountExactlyByDefault() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.totalPages").value(2))
+                .andExpect(jsonPath("$.isLast").value(false));
+    }
+
+    @Test
+    void shouldSkipCountWhenModeIsNone() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("size", "2").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist())
+                .andExpect(jsonPath("$.isLast").value(false));
+
+        mockMvc.perform(
+                        get("/api/devices")
+                                .param("page", "1")
+                                .param("size", "2")
+                                .param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.isLast").value(true));
+    }
+
+    @Test
+    void shouldReturnEstimatedCount() throws Exception {
+        // when & then
+        mockMvc.perform(
+                        get("/api/devices")
+                                .param("brand", "bosch")
+                                .param("size", "2")
+                                .param("count", "estimate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.isLast").value(false));
+    }
+
+    @Test
+    void shouldRejectInvalidCountMode() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("count", "approximate"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("Bad Request"));
+    }
+
+    @Test
+    void shouldRejectCountWithCursor() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("cursor", "abc").param("count", "exact"))
+                .andExpect(status().isBadRequest())
+                .andExpect(
+                        jsonPath("$.detail").value("Cursor pagination only supports count=none"));
+    }
+}
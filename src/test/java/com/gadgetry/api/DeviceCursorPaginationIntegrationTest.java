@@ -0,0 +1,113 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class DeviceCursorPaginationIntegrationTest extends BaseIntegrationTest {
+
+    @Test
+    void shouldWalkAllPagesWithCursor() throws Exception {
+        // given
+        for (var name : new String[] {"Delta", "Alpha", "Echo", "Charlie", "Bravo"}) {
+            mockMvc.perform(
+                            post("/api/devices")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(
+                                            objectMapper.writeValueAsString(
+                                                    new DeviceCreateRequest(
+                                                            name, "Acme", DeviceState.AVAILABLE))))
+                    .andExpect(status().isCreated());
+        }
+
+        // when
+        var names = new ArrayList<String>();
+        var firstPage =
+                mockMvc.perform(get("/api/devices").param("size", "2").param("sort", "name,asc"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.content.length()").value(2))
+                        .andExpect(jsonPath("$.nextCursor").exists())
+                        .andReturn();
+        var node = objectMapper.readTree(firstPage.getResponse().getContentAsString());
+        node.get("content").forEach(device -> names.add(device.get("displayName").asText()));
+
+        while (!node.get("nextCursor").isNull()) {
+            var nextPage =
+                    mockMvc.perform(
+                                    get("/api/devices")
+                                            .param("size", "2")
+                                            .param("cursor", node.get("nextCursor").asText()))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.totalElements").doesNotExist())
+                            .andReturn();
+            node = objectMapper.readTree(nextPage.getResponse().getContentAsString());
+            node.get("content").forEach(device -> names.add(device.get("displayName").asText()));
+        }
+
+        // then
+        assertThat(names).containsExactly("Alpha", "Bravo", "Charlie", "Delta", "Echo");
+    }
+
+    @Test
+    void shouldApplyFiltersWithCursor() throws Exception {
+        // given
+        for (var brand : new String[] {"Apple", "Samsung", "Apple", "Apple"}) {
+            mockMvc.perform(
+                            post("/api/devices")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(
+                                            objectMapper.writeValueAsString(
+                                                    new DeviceCreateRequest(
+                                                            "Phone",
+                                                            brand,
+                                                            DeviceState.AVAILABLE))))
+                    .andExpect(status().isCreated());
+        }
+
+        var firstPage =
+                mockMvc.perform(get("/api/devices").param("brand", "apple").param("size", "2"))
+                        .andExpect(status().isOk())
+                        .andReturn();
+        var cursor =
+                objectMapper
+                        .readTree(firstPage.getResponse().getContentAsString())
+                        .get("nextCursor")
+                        .asText();
+
+        // when & then
+        mockMvc.perform(
+                        get("/api/devices")
+                                .param("brand", "apple")
+                                .param("size", "2")
+                                .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].displayBrand").value("Apple"))
+                .andExpect(jsonPath("$.isLast").value(true))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Invalid cursor"));
+    }
+
+    @Test
+    void shouldRejectCursorCombinedWithPage() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("cursor", "abc").param("page", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("Bad Request"));
+    }
+}
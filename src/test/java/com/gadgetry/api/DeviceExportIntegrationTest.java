@@ -0,0 +1,83 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.api.dto.DeviceResponse;
+import com.gadgetry.domain.model.DeviceState;
+import java.util.ArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+class DeviceExportIntegrationTest extends BaseIntegrationTest {
+
+    @BeforeEach
+    void createDevices() throws Exception {
+        var requests = new ArrayList<DeviceCreateRequest>();
+        for (var i = 0; i < 120; i++) {
+            requests.add(new DeviceCreateRequest("Scanner " + i, "Zebra", DeviceState.AVAILABLE));
+        }
+        requests.add(new DeviceCreateRequest("Label \"Pro\", 4in", "Brother", DeviceState.IN_USE));
+        mockMvc.perform(
+                        post("/api/devices/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldStreamAllMatchingDevicesAsNdjson() throws Exception {
+        // when
+        var body =
+                export(get("/api/devices/export").param("brand", "zebra"), "application/x-ndjson");
+
+        // then
+        var lines = body.lines().toList();
+        assertThat(lines).hasSize(120);
+        var first = objectMapper.readValue(lines.get(0), DeviceResponse.class);
+        assertThat(first.displayBrand()).isEqualTo("Zebra");
+        assertThat(first.id()).isNotNull();
+    }
+
+    @Test
+    void shouldStreamCsvWithHeaderAndQuotedValues() throws Exception {
+        // when
+        var body =
+                export(
+                        get("/api/devices/export").param("format", "csv").param("state", "IN_USE"),
+                        "text/csv");
+
+        // then
+        var lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0))
+                .isEqualTo("id,displayName,displayBrand,state,createdAt,updatedAt,version");
+        assertThat(lines.get(1)).contains(",\"Label \"\"Pro\"\", 4in\",Brother,IN_USE,");
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(MockHttpServletRequestBuilder builder, String contentType)
+            throws Exception {
+        var result = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(contentType))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.gadgetry.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class DeviceFacetsIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldCountFacetsOverAllMatchingDevices() throws Exception {
+        // given
+        createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        createDevice(new DeviceCreateRequest("Pixel 8", "Google", DeviceState.INACTIVE));
+        createDevice(new DeviceCreateRequest("Pixel Clone", "Acme", DeviceState.AVAILABLE));
+        createDevice(new DeviceCreateRequest("Galaxy S24", "Samsung", DeviceState.AVAILABLE));
+
+        // when & then
+        mockMvc.perform(
+                        get("/api/devices")
+                                .param("name", "pixel")
+                                .param("size", "1")
+                                .param("facets", "state,brand"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.facets.state.AVAILABLE").value(2))
+                .andExpect(jsonPath("$.facets.state.INACTIVE").value(1))
+                .andExpect(jsonPath("$.facets.state.IN_USE").value(0))
+                .andExpect(jsonPath("$.facets.brand.google").value(2))
+                .andExpect(jsonPath("$.facets.brand.acme").value(1))
+                .andExpect(jsonPath("$.facets.brand.samsung").doesNotExist());
+    }
+
+    @Test
+    void shouldOnlyReturnTopBrands() throws Exception {
+        // given
+        insertDevices("Zebra", 3);
+        insertDevices("Honeywell", 2);
+        for (var i = 0; i < 12; i++) {
+            insertDevices("Brand " + i, 1);
+        }
+
+        // when & then: the unfiltered count comes from device_stats, the filtered one does not
+        for (var request :
+                List.of(
+                        get("/api/devices").param("facets", "brand"),
+                        get("/api/devices").param("state", "AVAILABLE").param("facets", "brand"))) {
+            mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.facets.brand.length()").value(10))
+                    .andExpect(jsonPath("$.facets.brand.zebra").value(3))
+                    .andExpect(jsonPath("$.facets.brand.honeywell").value(2))
+                    .andExpect(jsonPath("$.facets.state").doesNotExist());
+        }
+    }
+
+    @Test
+    void shouldOmitFacetsUnlessRequested() throws Exception {
+        // given
+        createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+
+        // when & then
+        mockMvc.perform(get("/api/devices"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectInvalidFacet() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("facets", "state,color"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("Bad Request"));
+    }
+
+    @Test
+    void shouldRejectFacetsWithCursor() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("cursor", "abc").param("facets", "state"))
+                .andExpect(status().isBadRequest())
+                .andExpect(
+                        jsonPath("$.detail")
+                                .value("Facets are only returned with the first page"));
+    }
+
+    private void insertDevices(String brand, int count) {
+        jdbcTemplate.update(
+                """
+                INSERT INTO devices (display_name, display_brand, name, brand, state,
+                                     created_at, updated_at)
+                SELECT 'Device ' || i, ?, 'device ' || i, lower(?), 'AVAILABLE', now(), now()
+                FROM generate_series(1, ?) AS i
+                """,
+                brand,
+                brand,
+                count);
+    }
+}
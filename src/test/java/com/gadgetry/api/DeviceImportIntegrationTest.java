@@ -0,0 +1,126 @@
+package com.gadgetry.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class DeviceImportIntegrationTest extends BaseIntegrationTest {
+
+    @Test
+    void shouldImportNdjsonAndNormalizeLikeCreate() throws Exception {
+        // given
+        var body =
+                IntStream.range(0, 500)
+                        .mapToObj(
+                                i ->
+                                        String.format(
+                                                "{\"displayName\": \" Scanner %d \","
+                                                        + " \"displayBrand\": \"ZEBRA\"}",
+                                                i))
+                        .collect(Collectors.joining("\n"));
+
+        // when
+        mockMvc.perform(
+                        post("/api/devices/import")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(500))
+                .andExpect(jsonPath("$.updated").value(0))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        // then
+        mockMvc.perform(get("/api/devices").param("name", "scanner 42").param("brand", "zebra"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].displayName").value("Scanner 42"))
+                .andExpect(jsonPath("$.content[0].displayBrand").value("ZEBRA"))
+                .andExpect(jsonPath("$.content[0].state").value("AVAILABLE"));
+    }
+
+    @Test
+    void shouldReportRejectedRowsWithoutAbortingImport() throws Exception {
+        // given
+        var body =
+                String.join(
+                        "\n",
+                        "{\"displayName\": \"Scanner A\", \"displayBrand\": \"Zebra\"}",
+                        "{\"displayBrand\": \"Zebra\"}",
+                        "not json",
+                        "{\"displayName\": \"Scanner D\", \"displayBrand\": \"Zebra\","
+                                + " \"state\": \"BROKEN\"}",
+                        "{\"displayName\": \"Scanner E\", \"displayBrand\": \"Zebra\","
+                                + " \"state\": \"inactive\"}");
+
+        // when & then
+        mockMvc.perform(
+                        post("/api/devices/import")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.rejections[0].row").value(2))
+                .andExpect(
+                        jsonPath("$.rejections[0].error")
+                                .value("displayName: Device name is required"))
+                .andExpect(jsonPath("$.rejections[1].row").value(3))
+                .andExpect(jsonPath("$.rejections[1].error").value("Malformed JSON"))
+                .andExpect(jsonPath("$.rejections[2].error").value("Invalid state: BROKEN"));
+    }
+
+    @Test
+    void shouldUpdateExistingDevicesFromCsv() throws Exception {
+        // given
+        var available =
+                createDevice(new DeviceCreateRequest("Scanner A", "Zebra", DeviceState.AVAILABLE));
+        var inUse = createDevice(new DeviceCreateRequest("Scanner B", "Zebra", DeviceState.IN_USE));
+        var body =
+                String.join(
+                        "\n",
+                        "id,displayName,displayBrand,state",
+                        available.id() + ",Scanner A1,Zebra,INACTIVE",
+                        available.id() + ",\"Scanner A2, refurbished\",Zebra,AVAILABLE",
+                        inUse.id() + ",Scanner B1,Zebra,IN_USE",
+                        ",Scanner C,Zebra,");
+
+        // when
+        mockMvc.perform(post("/api/devices/import").contentType("text/csv").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.rejections[0].row").value(1))
+                .andExpect(jsonPath("$.rejections[0].error").value("Superseded by row 2"))
+                .andExpect(jsonPath("$.rejections[1].row").value(3))
+                .andExpect(
+                        jsonPath("$.rejections[1].error")
+                                .value("Cannot update name or brand of device in use"));
+
+        // then
+        mockMvc.perform(get("/api/devices/" + available.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.displayName").value("Scanner A2, refurbished"))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(get("/api/devices/" + inUse.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.displayName").value("Scanner B"));
+    }
+
+    @Test
+    void shouldRejectMalformedCsv() throws Exception {
+        // when & then
+        mockMvc.perform(
+                        post("/api/devices/import")
+                                .contentType("text/csv")
+                                .content("displayName,displayBrand\n\"Scanner A,Zebra\n"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,83 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class DeviceMetricsIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldTimeSearchByFilterAndSort() throws Exception {
+        // given
+        createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+
+        // when
+        mockMvc.perform(get("/api/devices").param("brand", "google").param("sort", "name,asc"))
+                .andExpect(status().isOk());
+
+        // then
+        var timer =
+                meterRegistry
+                        .get("gadgetry.device.search")
+                        .tag("name", "false")
+                        .tag("brand", "true")
+                        .tag("state", "any")
+                        .tag("sort", "name")
+                        .timer();
+        assertThat(timer.count()).isPositive();
+        assertThat(timer.takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+
+    @Test
+    void shouldTimeServiceMethods() throws Exception {
+        // given
+        var before = serviceCalls("create");
+
+        // when
+        createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+
+        // then
+        assertThat(serviceCalls("create")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void shouldCountStatementsPerRequest() throws Exception {
+        // given
+        createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        mockMvc.perform(get("/api/devices")).andExpect(status().isOk());
+        var summary =
+                meterRegistry
+                        .get("gadgetry.http.jdbc.statements")
+                        .tag("method", "GET")
+                        .tag("uri", "/api/devices")
+                        .summary();
+        var requestsBefore = summary.count();
+        var statementsBefore = summary.totalAmount();
+
+        // when
+        mockMvc.perform(get("/api/devices").param("count", "exact")).andExpect(status().isOk());
+
+        // then
+        assertThat(summary.count()).isEqualTo(requestsBefore + 1);
+        // the page query plus the count query, which runs on another thread
+        assertThat(summary.totalAmount() - statementsBefore).isGreaterThanOrEqualTo(2);
+    }
+
+    private long serviceCalls(String method) {
+        var timer =
+                meterRegistry
+                        .find("gadgetry.service")
+                        .tag("class", "com.gadgetry.domain.service.DeviceService")
+                        .tag("method", method)
+                        .timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
@@ -0,0 +1,122 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.domain.service.DeviceOutboxRelay;
+import com.gadgetry.persistence.DeviceOutboxEvent;
+import com.gadgetry.persistence.repository.DeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class DeviceOutboxIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private DeviceRepository deviceRepository;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private Clock clock;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<List<DeviceOutboxEvent>> published = new ArrayList<>();
+
+    @Test
+    void shouldRelayEveryCommittedChange() throws Exception {
+        // given
+        var id =
+                createDevice(
+                        new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE)).id();
+        mockMvc.perform(
+                        patch("/api/devices/" + id)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"state\": \"INACTIVE\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(
+                        patch("/api/devices/" + id)
+                                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"state\": \"AVAILABLE\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/devices/" + id)).andExpect(status().isNoContent());
+
+        // when
+        var relayed = relay(1000).relayPending();
+
+        // then
+        assertThat(relayed).isEqualTo(3);
+        var events = published.stream().flatMap(List::stream).toList();
+        assertThat(events).extracting(DeviceOutboxEvent::deviceId).containsOnly(id);
+        assertThat(events)
+                .extracting(DeviceOutboxEvent::type)
+                .containsExactly("CREATED", "UPDATED", "DELETED");
+        var updated = objectMapper.readTree(events.get(1).payload());
+        assertThat(updated.get("state").asText()).isEqualTo("INACTIVE");
+        assertThat(updated.get("version").asLong()).isEqualTo(1);
+        assertThat(outboxSize()).isZero();
+        assertThat(meterRegistry.get("gadgetry.outbox.relayed").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("gadgetry.outbox.lag").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRelayInBatches() throws Exception {
+        // given
+        for (var i = 0; i < 5; i++) {
+            createDevice(new DeviceCreateRequest("Pixel " + i, "Google", DeviceState.AVAILABLE));
+        }
+
+        // when
+        var relayed = relay(2).relayPending();
+
+        // then
+        assertThat(relayed).isEqualTo(5);
+        assertThat(published).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(published.stream().flatMap(List::stream).map(DeviceOutboxEvent::id))
+                .isSorted();
+        assertThat(meterRegistry.get("gadgetry.outbox.batch").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldKeepEventsWhenSinkFails() throws Exception {
+        // given
+        createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        var relay =
+                new DeviceOutboxRelay(
+                        deviceRepository,
+                        events -> {
+                            throw new IllegalStateException("sink unavailable");
+                        },
+                        clock,
+                        meterRegistry,
+                        1000);
+
+        // when
+        assertThatThrownBy(relay::relayPending).isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(outboxSize()).isEqualTo(1);
+        assertThat(relay(1000).relayPending()).isEqualTo(1);
+        assertThat(outboxSize()).isZero();
+    }
+
+    private DeviceOutboxRelay relay(int batchSize) {
+        return new DeviceOutboxRelay(
+                deviceRepository, published::add, clock, meterRegistry, batchSize);
+    }
+
+    private long outboxSize() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM device_outbox", Long.class);
+    }
+}
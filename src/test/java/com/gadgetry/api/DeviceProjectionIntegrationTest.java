@@ -0,0 +1,71 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DeviceProjectionIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void shouldListDevicesWithoutLoadingEntities() throws Exception {
+        // given
+        for (var i = 0; i < 3; i++) {
+            createDevice(new DeviceCreateRequest("Scanner " + i, "Zebra", DeviceState.AVAILABLE));
+        }
+        statistics.clear();
+
+        // when
+        mockMvc.perform(
+                        get("/api/devices")
+                                .param("brand", "zebra")
+                                .param("sort", "name,asc")
+                                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].displayName").value("Scanner 0"))
+                .andExpect(jsonPath("$.content[0].version").value(0))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+
+        // then
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void shouldFetchDeviceWithoutLoadingEntity() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Scanner 0", "Zebra", DeviceState.AVAILABLE));
+        statistics.clear();
+
+        // when
+        mockMvc.perform(get("/api/devices/" + created.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.displayName").value("Scanner 0"))
+                .andExpect(jsonPath("$.displayBrand").value("Zebra"));
+
+        // then
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,136 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.UUID;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// The replica is a second, independent database rather than a streaming replica, so where a read
+// went shows in which rows it returns.
+class DeviceReadReplicaIntegrationTest extends BaseIntegrationTest {
+
+    private static final PostgreSQLContainer<?> replica = createReplicaContainer();
+
+    @SuppressWarnings("resource")
+    private static PostgreSQLContainer<?> createReplicaContainer() {
+        var container =
+                new PostgreSQLContainer<>("postgres:17-alpine")
+                        .withDatabaseName("gadgetry_replica")
+                        .withUsername("test")
+                        .withPassword("test");
+        container.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(container::stop));
+        Flyway.configure()
+                .dataSource(
+                        container.getJdbcUrl(), container.getUsername(), container.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        return container;
+    }
+
+    @DynamicPropertySource
+    static void configureReplicas(DynamicPropertyRegistry registry) {
+        registry.add("gadgetry.datasource.replicas.enabled", () -> "true");
+        // the second replica is unreachable and must be skipped
+        registry.add(
+                "gadgetry.datasource.replicas.urls",
+                () -> replica.getJdbcUrl() + ",jdbc:postgresql://localhost:1/gadgetry");
+        registry.add("gadgetry.datasource.replicas.connection-timeout", () -> "250ms");
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private MeterRegistry meterRegistry;
+
+    private final JdbcTemplate replicaJdbcTemplate =
+            new JdbcTemplate(
+                    new DriverManagerDataSource(
+                            replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+
+    @BeforeEach
+    void clearReplica() {
+        replicaJdbcTemplate.execute(
+                "TRUNCATE TABLE devices, devices_archive, device_outbox, device_stats"
+                        + " RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    void shouldServeListingsFromReachableReplica() throws Exception {
+        // given
+        insertDevice(replicaJdbcTemplate, "Pixel 9 (replica)");
+        insertDevice(jdbcTemplate, "Pixel 9 (primary)");
+
+        // when & then
+        for (var i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/devices"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").value(1))
+                    .andExpect(jsonPath("$.content[0].displayName").value("Pixel 9 (replica)"));
+        }
+        assertThat(replicaLag("replica-0")).isZero();
+        assertThat(replicaLag("replica-1")).isNaN();
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimaryAfterPatch() throws Exception {
+        // given
+        var id = insertDevice(jdbcTemplate, "Pixel 9");
+
+        // when
+        var cookie =
+                mockMvc.perform(
+                                patch("/api/devices/" + id)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content("{\"displayName\": \"Pixel 9 Pro\"}"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+        // then
+        assertThat(cookie).isNotNull();
+        mockMvc.perform(get("/api/devices").cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].displayName").value("Pixel 9 Pro"));
+        mockMvc.perform(get("/api/devices"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    private double replicaLag(String replicaName) {
+        return meterRegistry
+                .get("gadgetry.datasource.replica.lag")
+                .tag("replica", replicaName)
+                .gauge()
+                .value();
+    }
+
+    private static UUID insertDevice(JdbcTemplate target, String name) {
+        return target.queryForObject(
+                """
+                INSERT INTO devices (display_name, display_brand, name, brand, state,
+                                     created_at, updated_at)
+                VALUES (?, 'Google', lower(?), 'google', 'AVAILABLE', now(), now())
+                RETURNING id
+                """,
+                UUID.class,
+                name,
+                name);
+    }
+}
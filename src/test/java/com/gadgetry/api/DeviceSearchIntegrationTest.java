@@ -0,0 +1,92 @@
+package com.gadgetry.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class DeviceSearchIntegrationTest extends BaseIntegrationTest {
+
+    @BeforeEach
+    void createDevices() throws Exception {
+        for (var name : new String[] {"Google Pixel 8 Pro", "Pixel 7", "Pixel 8", "Nexus 5"}) {
+            mockMvc.perform(
+                            post("/api/devices")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(
+                                            objectMapper.writeValueAsString(
+                                                    new DeviceCreateRequest(
+                                                            name,
+                                                            "Google",
+                                                            DeviceState.AVAILABLE))))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    @Test
+    void shouldMatchNameFragmentRankedBySimilarity() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("name", "pixel 8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].displayName").value("Pixel 8"))
+                .andExpect(jsonPath("$.content[1].displayName").value("Google Pixel 8 Pro"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void shouldMatchBrandFragment() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("brand", "OOG"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(4));
+    }
+
+    @Test
+    void shouldMatchNameWithTyposWhenFuzzy() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("name", "pixl 8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+
+        mockMvc.perform(get("/api/devices").param("name", "pixl 8").param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].displayName").value("Pixel 8"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void shouldTreatLikeWildcardsLiterally() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("name", "%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void shouldKeepExplicitSortWhenSearching() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("name", "pixel").param("sort", "name,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[0].displayName").value("Google Pixel 8 Pro"))
+                .andExpect(jsonPath("$.content[2].displayName").value("Pixel 8"));
+    }
+
+    @Test
+    void shouldRejectRelevanceSortWithoutSearchTerms() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/devices").param("sort", "relevance"))
+                .andExpect(status().isBadRequest())
+                .andExpect(
+                        jsonPath("$.detail")
+                                .value("Sorting by relevance requires a name or brand filter"));
+    }
+}
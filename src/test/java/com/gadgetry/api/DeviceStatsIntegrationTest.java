@@ -0,0 +1,111 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.api.dto.DeviceStatsResponse;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.domain.service.DeviceStatsReconciler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class DeviceStatsIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private DeviceStatsReconciler deviceStatsReconciler;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldCountCreatedUpdatedAndDeletedDevices() throws Exception {
+        // given
+        createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        var pixel8 =
+                createDevice(new DeviceCreateRequest("Pixel 8", " GOOGLE ", DeviceState.AVAILABLE));
+        var iphone =
+                createDevice(new DeviceCreateRequest("iPhone 16", "Apple", DeviceState.IN_USE));
+        var ipad =
+                createDevice(new DeviceCreateRequest("iPad Air", "Apple", DeviceState.AVAILABLE));
+
+        // when
+        mockMvc.perform(
+                        patch("/api/devices/" + pixel8.id())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"state\": \"INACTIVE\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/devices/" + iphone.id() + "/checkin"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/devices/" + ipad.id())).andExpect(status().isNoContent());
+
+        // then
+        mockMvc.perform(get("/api/devices/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byState.AVAILABLE").value(2))
+                .andExpect(jsonPath("$.byState.IN_USE").value(0))
+                .andExpect(jsonPath("$.byState.INACTIVE").value(1))
+                .andExpect(jsonPath("$.byBrand.google").value(2))
+                .andExpect(jsonPath("$.byBrand.apple").value(1));
+    }
+
+    @Test
+    void shouldCountMultiRowStatementsOnce() throws Exception {
+        // when
+        jdbcTemplate.update(
+                """
+                INSERT INTO devices (display_name, display_brand, name, brand, state,
+                                     created_at, updated_at)
+                SELECT 'Scanner ' || i, 'Zebra', 'scanner ' || i, 'zebra', 'AVAILABLE', now(), now()
+                FROM generate_series(1, 50) AS i
+                """);
+        jdbcTemplate.update(
+                "UPDATE devices SET state = 'IN_USE' WHERE name IN ('scanner 1', 'scanner 2')");
+
+        // then
+        var stats = stats();
+        assertThat(stats.total()).isEqualTo(50);
+        assertThat(stats.byState())
+                .containsEntry(DeviceState.AVAILABLE, 48L)
+                .containsEntry(DeviceState.IN_USE, 2L);
+        assertThat(
+                        jdbcTemplate.queryForObject(
+                                "SELECT count(*) FROM device_stats WHERE brand = 'zebra'",
+                                Integer.class))
+                .isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void shouldCorrectDriftOnReconcile() throws Exception {
+        // given
+        createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.AVAILABLE));
+        createDevice(new DeviceCreateRequest("iPhone 16", "Apple", DeviceState.IN_USE));
+        jdbcTemplate.update("UPDATE device_stats SET device_count = device_count + 5");
+        jdbcTemplate.update(
+                "INSERT INTO device_stats (brand, state, stripe, device_count)"
+                        + " VALUES ('nokia', 'INACTIVE', 3, 7)");
+
+        // when
+        var corrected = deviceStatsReconciler.reconcile();
+
+        // then
+        assertThat(corrected).isEqualTo(3);
+        var stats = stats();
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.byBrand()).containsOnlyKeys("google", "apple");
+        assertThat(deviceStatsReconciler.reconcile()).isZero();
+    }
+
+    private DeviceStatsResponse stats() throws Exception {
+        var result =
+                mockMvc.perform(get("/api/devices/stats")).andExpect(status().isOk()).andReturn();
+        return objectMapper.readValue(
+                result.getResponse().getContentAsString(), DeviceStatsResponse.class);
+    }
+}
@@ -1,5 +1,6 @@
 package com.gadgetry.api;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -8,12 +9,16 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.gadgetry.api.dto.DeviceCreateRequest;
 import com.gadgetry.api.dto.DeviceResponse;
 import com.gadgetry.domain.model.DeviceState;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 
 class DeviceUpdateIntegrationTest extends BaseIntegrationTest {
 
+    @Autowired private MeterRegistry meterRegistry;
+
     @Test
     void shouldPartiallyUpdateDeviceName() throws Exception {
         // given
@@ -243,4 +248,68 @@ class DeviceUpdateIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.state").value("AVAILABLE"))
                 .andExpect(jsonPath("$.version").value(0));
     }
+
+    @Test
+    void shouldUpdateDisplaySpellingOfDeviceInUse() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Pixel 9", "Google", DeviceState.IN_USE));
+
+        // when & then
+        var updateRequest = "{\"displayName\": \"PIXEL 9\", \"displayBrand\": \"google\"}";
+        mockMvc.perform(
+                        patch("/api/devices/" + created.id())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(updateRequest))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.displayName").value("PIXEL 9"))
+                .andExpect(jsonPath("$.displayBrand").value("google"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void shouldNotBumpVersionWhenNothingChanges() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Device", "Brand", DeviceState.AVAILABLE));
+
+        // when & then
+        var updateRequest = "{\"displayName\": \" Device \", \"state\": \"AVAILABLE\"}";
+        mockMvc.perform(
+                        patch("/api/devices/" + created.id())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(updateRequest))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.displayName").value("Device"))
+                .andExpect(jsonPath("$.version").value(0));
+    }
+
+    @Test
+    void shouldUpdateInOneStatement() throws Exception {
+        // given
+        var created =
+                createDevice(new DeviceCreateRequest("Device", "Brand", DeviceState.AVAILABLE));
+        var statementsBefore = patchStatements();
+
+        // when
+        mockMvc.perform(
+                        patch("/api/devices/" + created.id())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"displayName\": \"New Device\"}"))
+                .andExpect(status().isOk());
+
+        // then
+        assertThat(patchStatements() - statementsBefore).isEqualTo(1);
+    }
+
+    private double patchStatements() {
+        var summary =
+                meterRegistry
+                        .find("gadgetry.http.jdbc.statements")
+                        .tag("method", "PATCH")
+                        .tag("uri", "/api/devices/{id}")
+                        .tag("status", "200")
+                        .summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
 }
@@ -0,0 +1,66 @@
+package com.gadgetry.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gadgetry.api.dto.DeviceCreateRequest;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.persistence.ConnectionLimitingDataSource;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@ActiveProfiles("virtual-threads")
+@TestPropertySource(
+        properties = {
+            "spring.datasource.hikari.maximum-pool-size=2",
+            "spring.datasource.hikari.connection-timeout=250ms"
+        })
+class VirtualThreadModeIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private DataSource dataSource;
+
+    @Test
+    void shouldQueueRequestsBeyondPoolSizeInsteadOfTimingOut() throws Exception {
+        // given
+        assertThat(dataSource.isWrapperFor(ConnectionLimitingDataSource.class)).isTrue();
+        mockMvc.perform(
+                        post("/api/devices")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(
+                                        objectMapper.writeValueAsString(
+                                                new DeviceCreateRequest(
+                                                        "Pixel 9",
+                                                        "Google",
+                                                        DeviceState.AVAILABLE))))
+                .andExpect(status().isCreated());
+        var requests = new ArrayList<Callable<Integer>>();
+        for (var i = 0; i < 500; i++) {
+            requests.add(
+                    () ->
+                            mockMvc.perform(get("/api/devices").param("brand", "google"))
+                                    .andReturn()
+                                    .getResponse()
+                                    .getStatus());
+        }
+
+        // when
+        var statuses = new ArrayList<Integer>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var future : executor.invokeAll(requests)) {
+                statuses.add(future.get());
+            }
+        }
+
+        // then
+        assertThat(statuses).containsOnly(200);
+    }
+}
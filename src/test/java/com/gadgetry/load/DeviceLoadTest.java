@@ -0,0 +1,267 @@
+package com.gadgetry.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Drives a mixed workload against the real server and reports throughput and latency
+// percentiles per endpoint. Run with ./gradlew loadTest; every gadgetry.load.* and spring.*
+// system property is passed through, so server settings can be compared on the same workload:
+//
+//   ./gradlew loadTest -Dspring.threads.virtual.enabled=true
+//   ./gradlew loadTest -Dspring.datasource.hikari.maximum-pool-size=20
+//       -Dgadgetry.load.rows=1000000 -Dgadgetry.load.concurrency=200
+//
+// Workers run a closed loop (each waits for its response before sending the next request), so
+// latencies under saturation are understated; compare runs at the same concurrency.
+@Slf4j
+@Tag("load-test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class DeviceLoadTest {
+
+    private static final int ROWS = Integer.getInteger("gadgetry.load.rows", 100_000);
+    private static final int CONCURRENCY = Integer.getInteger("gadgetry.load.concurrency", 64);
+    private static final Duration WARMUP =
+            Duration.parse(System.getProperty("gadgetry.load.warmup", "PT10S"));
+    private static final Duration DURATION =
+            Duration.parse(System.getProperty("gadgetry.load.duration", "PT60S"));
+    private static final int HOT_DEVICES = Integer.getInteger("gadgetry.load.hot-devices", 10);
+    private static final int CREATE_BURST = 10;
+    private static final Path REPORT = Path.of("build", "reports", "load-test", "summary.txt");
+
+    private static final PostgreSQLContainer<?> postgres = createPostgresContainer();
+
+    @SuppressWarnings("resource")
+    private static PostgreSQLContainer<?> createPostgresContainer() {
+        var container =
+                new PostgreSQLContainer<>("postgres:17-alpine")
+                        .withDatabaseName("gadgetry_load")
+                        .withUsername("test")
+                        .withPassword("test");
+        container.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(container::stop));
+        return container;
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    enum Endpoint {
+        GET_BY_ID(60),
+        LIST_FILTERED(25),
+        PATCH_HOT(10),
+        CREATE_BURST(5);
+
+        private final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    @LocalServerPort private int port;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private Environment environment;
+
+    private final HttpClient httpClient =
+            HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+    private List<UUID> ids;
+    private List<UUID> hotIds;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        // given
+        seedCatalog();
+        run(WARMUP);
+
+        // when
+        var started = System.nanoTime();
+        var stats = run(DURATION);
+        var elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        // then
+        var report = report(stats, elapsed);
+        log.info("Load test results{}{}", System.lineSeparator(), report);
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report);
+        assertThat(stats.get(Endpoint.GET_BY_ID).statuses()).containsOnlyKeys(200);
+    }
+
+    private void seedCatalog() {
+        jdbcTemplate.update(
+                """
+                INSERT INTO devices (display_name, display_brand, name, brand, state,
+                                     created_at, updated_at)
+                SELECT 'Device ' || g, 'Brand ' || (g % 500), 'device ' || g, 'brand ' || (g % 500),
+                       (ARRAY['AVAILABLE', 'IN_USE', 'INACTIVE'])[1 + g % 3],
+                       now() - g * interval '1 second',
+                       now() - (g % 86400) * interval '1 second'
+                FROM generate_series(1, ?) g
+                """,
+                ROWS);
+        jdbcTemplate.execute("VACUUM ANALYZE devices");
+        ids = jdbcTemplate.queryForList("SELECT id FROM devices LIMIT 100000", UUID.class);
+        // name and brand of an in-use device cannot change, so contend on available ones
+        hotIds =
+                jdbcTemplate.queryForList(
+                        "SELECT id FROM devices WHERE state = 'AVAILABLE' LIMIT ?",
+                        UUID.class,
+                        HOT_DEVICES);
+    }
+
+    private Map<Endpoint, LatencyStats> run(Duration duration) throws Exception {
+        var deadline = System.nanoTime() + duration.toNanos();
+        var workers = new ArrayList<Future<Map<Endpoint, LatencyStats>>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0; i < CONCURRENCY; i++) {
+                workers.add(executor.submit(() -> work(deadline)));
+            }
+        }
+
+        var merged = new EnumMap<Endpoint, LatencyStats>(Endpoint.class);
+        for (var worker : workers) {
+            worker.get()
+                    .forEach(
+                            (endpoint, stats) ->
+                                    merged.merge(endpoint, stats, LatencyStats::merge));
+        }
+        return merged;
+    }
+
+    private Map<Endpoint, LatencyStats> work(long deadline) throws Exception {
+        var stats = new EnumMap<Endpoint, LatencyStats>(Endpoint.class);
+        for (var endpoint : Endpoint.values()) {
+            stats.put(endpoint, new LatencyStats());
+        }
+        while (System.nanoTime() < deadline) {
+            var endpoint = pick();
+            var repetitions = endpoint == Endpoint.CREATE_BURST ? CREATE_BURST : 1;
+            for (var i = 0; i < repetitions; i++) {
+                var request = request(endpoint);
+                var sent = System.nanoTime();
+                var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                stats.get(endpoint).record(System.nanoTime() - sent, response.statusCode());
+            }
+        }
+        return stats;
+    }
+
+    private static Endpoint pick() {
+        var roll = ThreadLocalRandom.current().nextInt(100);
+        for (var endpoint : Endpoint.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return Endpoint.GET_BY_ID;
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        var random = ThreadLocalRandom.current();
+        return switch (endpoint) {
+            case GET_BY_ID -> get("/api/devices/" + ids.get(random.nextInt(ids.size())));
+            case LIST_FILTERED ->
+                    get(
+                            "/api/devices?brand=brand%20"
+                                    + random.nextInt(500)
+                                    + "&state=AVAILABLE&sort=updatedAt,desc&size=20");
+            case PATCH_HOT ->
+                    json(
+                            "PATCH",
+                            "/api/devices/" + hotIds.get(random.nextInt(hotIds.size())),
+                            "{\"displayName\": \"Hot " + random.nextInt(1000) + "\"}");
+            case CREATE_BURST ->
+                    json(
+                            "POST",
+                            "/api/devices",
+                            "{\"displayName\": \"Burst "
+                                    + random.nextInt(1_000_000)
+                                    + "\", \"displayBrand\": \"Load\"}");
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private String report(Map<Endpoint, LatencyStats> stats, Duration elapsed) {
+        var seconds = elapsed.toMillis() / 1000.0;
+        var report = new StringBuilder();
+        report.append(
+                String.format(
+                        "rows=%d concurrency=%d duration=%s virtualThreads=%s poolSize=%s%n",
+                        ROWS,
+                        CONCURRENCY,
+                        DURATION,
+                        environment.getProperty("spring.threads.virtual.enabled", "false"),
+                        environment.getProperty(
+                                "spring.datasource.hikari.maximum-pool-size", "10")));
+        report.append(
+                String.format(
+                        "%-14s %10s %10s %9s %9s %9s  %s%n",
+                        "endpoint",
+                        "requests",
+                        "req/s",
+                        "p50 ms",
+                        "p99 ms",
+                        "p999 ms",
+                        "statuses"));
+        stats.forEach(
+                (endpoint, endpointStats) ->
+                        report.append(
+                                String.format(
+                                        "%-14s %10d %10.1f %9.2f %9.2f %9.2f  %s%n",
+                                        endpoint,
+                                        endpointStats.count(),
+                                        endpointStats.count() / seconds,
+                                        endpointStats.percentileMillis(0.50),
+                                        endpointStats.percentileMillis(0.99),
+                                        endpointStats.percentileMillis(0.999),
+                                        endpointStats.statuses())));
+        return report.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.gadgetry.load;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Latencies of one endpoint as seen by one worker. Workers record without sharing anything and
+// are merged once the run is over, so measuring does not add contention to what is measured.
+class LatencyStats {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private final Map<Integer, Long> statuses = new HashMap<>();
+
+    void record(long latencyNanos, int status) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latencyNanos;
+        statuses.merge(status, 1L, Long::sum);
+    }
+
+    LatencyStats merge(LatencyStats other) {
+        var merged = new LatencyStats();
+        merged.nanos = Arrays.copyOf(nanos, count + other.count);
+        System.arraycopy(other.nanos, 0, merged.nanos, count, other.count);
+        merged.count = count + other.count;
+        merged.statuses.putAll(statuses);
+        other.statuses.forEach((status, n) -> merged.statuses.merge(status, n, Long::sum));
+        return merged;
+    }
+
+    long count() {
+        return count;
+    }
+
+    Map<Integer, Long> statuses() {
+        return new TreeMap<>(statuses);
+    }
+
+    // nearest-rank percentile in milliseconds
+    double percentileMillis(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        var sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        var rank = (int) Math.ceil(quantile * count);
+        return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,272 @@
+package com.gadgetry.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gadgetry.api.dto.DeviceResponse;
+import com.gadgetry.domain.model.DeviceFilter;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.domain.service.CountMode;
+import com.gadgetry.domain.service.DeviceService;
+import com.gadgetry.persistence.repository.DeviceRepository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Runs the opt-in partitioning migration on a seeded catalog and checks that lookups and writes by
+// id touch a single partition while listings still avoid sequential scans. Also reports how long a
+// vacuum of one partition, the unit autovacuum works on, takes compared to the whole table and to
+// an unpartitioned copy of it, to build/reports/query-plan/partitioning.txt.
+// Run with ./gradlew queryPlanTest (row count: -Dgadgetry.query-plan.rows).
+@Slf4j
+@Tag("query-plan")
+@SpringBootTest(
+        properties =
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "com.gadgetry.persistence.RecordingStatementInspector")
+@ActiveProfiles("partitioned")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DevicePartitioningPlanTest {
+
+    private static final int ROWS = Integer.getInteger("gadgetry.query-plan.rows", 1_000_000);
+
+    private static final Path REPORT =
+            Path.of("build", "reports", "query-plan", "partitioning.txt");
+
+    private static final PostgreSQLContainer<?> postgres = createPostgresContainer();
+
+    @SuppressWarnings("resource")
+    private static PostgreSQLContainer<?> createPostgresContainer() {
+        var container =
+                new PostgreSQLContainer<>("postgres:17-alpine")
+                        .withDatabaseName("gadgetry_partitioned")
+                        .withUsername("test")
+                        .withPassword("test");
+        container.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(container::stop));
+        return container;
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("gadgetry.outbox.relay.enabled", () -> "false");
+    }
+
+    @Autowired private DeviceService deviceService;
+
+    @Autowired private DeviceRepository deviceRepository;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private ObjectMapper objectMapper;
+
+    private UUID sampleId;
+
+    @BeforeAll
+    void seedCatalog() {
+        // the seed is not a change anyone should be notified of or sent
+        jdbcTemplate.execute("ALTER TABLE devices DISABLE TRIGGER USER");
+        jdbcTemplate.update(
+                """
+                INSERT INTO devices (display_name, display_brand, name, brand, state,
+                                     created_at, updated_at, deleted_at)
+                SELECT 'Device ' || g, 'Brand ' || (g % 500), 'device ' || g, 'brand ' || (g % 500),
+                       (ARRAY['AVAILABLE', 'IN_USE', 'INACTIVE'])[1 + g % 3],
+                       now() - g * interval '1 second',
+                       now() - (g % 86400) * interval '1 second',
+                       CASE WHEN g % 10 = 0 THEN now() END
+                FROM generate_series(1, ?) g
+                """,
+                ROWS);
+        jdbcTemplate.execute("ALTER TABLE devices ENABLE TRIGGER USER");
+        jdbcTemplate.execute("VACUUM ANALYZE devices");
+        sampleId =
+                jdbcTemplate.queryForObject(
+                        "SELECT id FROM devices WHERE deleted_at IS NULL LIMIT 1", UUID.class);
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void shouldCreatePartitionedTable() {
+        var partitions =
+                jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM pg_inherits WHERE inhparent = 'devices'::regclass",
+                        Integer.class);
+        assertThat(partitions).isEqualTo(16);
+    }
+
+    @Test
+    void lookupByIdShouldReadOnePartition() throws Exception {
+        // when
+        deviceRepository.findById(sampleId);
+
+        // then
+        var sql = lastStatement();
+        assertThat(scannedPartitions(explain(sql.replace("?", "'" + sampleId + "'"))))
+                .as(sql)
+                .hasSize(1);
+    }
+
+    @Test
+    void updateByIdShouldReadOnePartition() throws Exception {
+        // the shape of the conditional single-row writes: patch, checkout, checkin
+        var plan =
+                explain(
+                        "UPDATE devices SET state = 'IN_USE', version = version + 1"
+                                + " WHERE id = '"
+                                + sampleId
+                                + "' AND state = 'AVAILABLE' AND deleted_at IS NULL RETURNING *");
+        assertThat(scannedPartitions(plan)).hasSize(1);
+    }
+
+    @ParameterizedTest(name = "{0} sorted by {1}")
+    @MethodSource("listingShapes")
+    void listingShouldNotScanWholePartitions(DeviceFilter filter, String sort) throws Exception {
+        // when
+        var pageable =
+                sort == null
+                        ? PageRequest.of(0, 20)
+                        : PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, sort, "id"));
+        deviceService.findDevices(filter, pageable, CountMode.NONE, DeviceResponse.class);
+
+        // then
+        var sql = lastStatement();
+        var plan =
+                jdbcTemplate.queryForObject(
+                        "EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberParameters(sql),
+                        String.class);
+        assertThat(sequentialScans(objectMapper.readTree(plan).get(0).get("Plan")))
+                .as("Plan for %s:%n%s", sql, plan)
+                .isZero();
+    }
+
+    @Test
+    void reportVacuumCost() throws IOException {
+        // given: the same catalog unpartitioned, and dead tuples spread over every partition, as
+        // steady update traffic leaves them
+        jdbcTemplate.execute("CREATE TABLE devices_unpartitioned (LIKE devices INCLUDING ALL)");
+        jdbcTemplate.execute("INSERT INTO devices_unpartitioned SELECT * FROM devices");
+        jdbcTemplate.execute("VACUUM ANALYZE devices_unpartitioned");
+        for (var table : new String[] {"devices", "devices_unpartitioned"}) {
+            jdbcTemplate.update(
+                    "UPDATE "
+                            + table
+                            + " SET version = version + 1"
+                            + " WHERE created_at > now() - ? * interval '1 second'",
+                    ROWS / 10);
+        }
+
+        // when
+        var partition = timeMillis("VACUUM devices_p00");
+        var partitioned = timeMillis("VACUUM devices");
+        var unpartitioned = timeMillis("VACUUM devices_unpartitioned");
+
+        // then
+        var report =
+                String.format(
+                        "Vacuum after updating %d of %d rows%n"
+                                + "  one of 16 partitions  %6d ms%n"
+                                + "  all 16 partitions     %6d ms%n"
+                                + "  unpartitioned table   %6d ms%n",
+                        ROWS / 10, ROWS, partition, partitioned, unpartitioned);
+        log.info("Partitioning results{}{}", System.lineSeparator(), report);
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report);
+        assertThat(partition).isLessThan(unpartitioned);
+    }
+
+    static Stream<Arguments> listingShapes() {
+        return Stream.of(
+                Arguments.of(new DeviceFilter(null, null, null, false), "createdAt"),
+                Arguments.of(new DeviceFilter(null, null, DeviceState.AVAILABLE, false), "name"),
+                Arguments.of(new DeviceFilter(null, "brand 42", null, false), "updatedAt"),
+                Arguments.of(new DeviceFilter("device 4242", null, null, true), null));
+    }
+
+    private long timeMillis(String sql) {
+        var start = System.nanoTime();
+        jdbcTemplate.execute(sql);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private String lastStatement() {
+        var selects =
+                RecordingStatementInspector.statements().stream()
+                        .filter(sql -> sql.startsWith("select"))
+                        .toList();
+        assertThat(selects).isNotEmpty();
+        return selects.get(selects.size() - 1);
+    }
+
+    private JsonNode explain(String sql) throws Exception {
+        var plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class);
+        return objectMapper.readTree(plan).get(0).get("Plan");
+    }
+
+    private static Set<String> scannedPartitions(JsonNode node) {
+        var partitions = new HashSet<String>();
+        var relation = node.path("Relation Name").asText();
+        if (relation.startsWith("devices_p")) {
+            partitions.add(relation);
+        }
+        for (var child : node.path("Plans")) {
+            partitions.addAll(scannedPartitions(child));
+        }
+        return partitions;
+    }
+
+    private static String numberParameters(String sql) {
+        var numbered = new StringBuilder();
+        var index = 0;
+        for (var c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++index);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static int sequentialScans(JsonNode node) {
+        var scans =
+                "Seq Scan".equals(node.path("Node Type").asText())
+                                && node.path("Relation Name").asText().startsWith("devices")
+                        ? 1
+                        : 0;
+        for (var child : node.path("Plans")) {
+            scans += sequentialScans(child);
+        }
+        return scans;
+    }
+}
@@ -0,0 +1,214 @@
+package com.gadgetry.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gadgetry.api.dto.DeviceResponse;
+import com.gadgetry.domain.model.DeviceFilter;
+import com.gadgetry.domain.model.DeviceState;
+import com.gadgetry.domain.service.CountMode;
+import com.gadgetry.domain.service.DeviceService;
+import com.gadgetry.persistence.repository.DeviceRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Seeds a large catalog once and checks the plan of every listing query shape, so that a change
+// to DeviceSpecification, the controller's sort handling or the indexes cannot silently fall back
+// to a sequential scan. Run with ./gradlew queryPlanTest (row count: -Dgadgetry.query-plan.rows).
+@Tag("query-plan")
+@SpringBootTest(
+        properties =
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "com.gadgetry.persistence.RecordingStatementInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DeviceQueryPlanTest {
+
+    private static final int ROWS = Integer.getInteger("gadgetry.query-plan.rows", 1_000_000);
+    private static final String[] SORT_FIELDS = {
+        "createdAt", "updatedAt", "name", "brand", "state"
+    };
+
+    private static final PostgreSQLContainer<?> postgres = createPostgresContainer();
+
+    @SuppressWarnings("resource")
+    private static PostgreSQLContainer<?> createPostgresContainer() {
+        var container =
+                new PostgreSQLContainer<>("postgres:17-alpine")
+                        .withDatabaseName("gadgetry_plan")
+                        .withUsername("test")
+                        .withPassword("test");
+        container.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(container::stop));
+        return container;
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("gadgetry.outbox.relay.enabled", () -> "false");
+    }
+
+    @Autowired private DeviceService deviceService;
+
+    @Autowired private DeviceRepository deviceRepository;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void seedCatalog() {
+        // the seed is not a change anyone should be notified of or sent
+        jdbcTemplate.execute("ALTER TABLE devices DISABLE TRIGGER USER");
+        jdbcTemplate.update(
+                """
+                INSERT INTO devices (display_name, display_brand, name, brand, state,
+                                     created_at, updated_at, deleted_at)
+                SELECT 'Device ' || g, 'Brand ' || (g % 500), 'device ' || g, 'brand ' || (g % 500),
+                       (ARRAY['AVAILABLE', 'IN_USE', 'INACTIVE'])[1 + g % 3],
+                       now() - g * interval '1 second',
+                       now() - (g % 86400) * interval '1 second',
+                       CASE WHEN g % 10 = 0 THEN now() END
+                FROM generate_series(1, ?) g
+                """,
+                ROWS);
+        jdbcTemplate.execute("ALTER TABLE devices ENABLE TRIGGER USER");
+        jdbcTemplate.execute("VACUUM ANALYZE devices");
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        RecordingStatementInspector.clear();
+    }
+
+    @ParameterizedTest(name = "{0} sorted by {1}")
+    @MethodSource("listingShapes")
+    void listingShouldNotScanWholeTable(DeviceFilter filter, String sort) throws Exception {
+        // when
+        var pageable =
+                sort == null
+                        ? PageRequest.of(0, 20)
+                        : PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, sort, "id"));
+        deviceService.findDevices(filter, pageable, CountMode.NONE, DeviceResponse.class);
+
+        // then
+        assertNoSequentialScan(lastSelect());
+    }
+
+    @ParameterizedTest(name = "{0} after {1} cursor")
+    @MethodSource("keysetShapes")
+    void keysetPageShouldNotScanWholeTable(DeviceFilter filter, String sort) throws Exception {
+        // given
+        var order = Sort.Order.asc(sort);
+        var device = deviceRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        var cursor = DeviceCursor.from(device, order);
+        RecordingStatementInspector.clear();
+
+        // when
+        deviceService.findDevicesAfter(filter, cursor, 20, DeviceResponse.class);
+
+        // then
+        assertNoSequentialScan(lastSelect());
+    }
+
+    static Stream<Arguments> listingShapes() {
+        var shapes = new ArrayList<Arguments>();
+        for (var filter : filters()) {
+            for (var sortField : SORT_FIELDS) {
+                shapes.add(Arguments.of(filter, sortField));
+            }
+            if (filter.hasSearchTerms()) {
+                // relevance ranking leaves the page unsorted
+                shapes.add(Arguments.of(filter, null));
+            }
+        }
+        return shapes.stream();
+    }
+
+    static Stream<Arguments> keysetShapes() {
+        return filters().stream()
+                .flatMap(
+                        filter ->
+                                Stream.of(SORT_FIELDS)
+                                        .map(sortField -> Arguments.of(filter, sortField)));
+    }
+
+    private static List<DeviceFilter> filters() {
+        var filters = new ArrayList<DeviceFilter>();
+        for (var name : new String[] {null, "device 4242"}) {
+            for (var brand : new String[] {null, "brand 42"}) {
+                for (var state : new DeviceState[] {null, DeviceState.AVAILABLE}) {
+                    filters.add(new DeviceFilter(name, brand, state, false));
+                    if (name != null || brand != null) {
+                        filters.add(new DeviceFilter(name, brand, state, true));
+                    }
+                }
+            }
+        }
+        return filters;
+    }
+
+    private String lastSelect() {
+        var selects =
+                RecordingStatementInspector.statements().stream()
+                        .filter(sql -> sql.startsWith("select"))
+                        .filter(sql -> !sql.contains("count("))
+                        .toList();
+        assertThat(selects).isNotEmpty();
+        return selects.get(selects.size() - 1);
+    }
+
+    private void assertNoSequentialScan(String sql) throws Exception {
+        // the generic plan is what a server-side prepared statement settles on after a few runs
+        var plan =
+                jdbcTemplate.queryForObject(
+                        "EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberParameters(sql),
+                        String.class);
+        var root = objectMapper.readTree(plan).get(0).get("Plan");
+        assertThat(sequentialScans(root)).as("Plan for %s:%n%s", sql, plan).isZero();
+    }
+
+    private static String numberParameters(String sql) {
+        var numbered = new StringBuilder();
+        var index = 0;
+        for (var c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++index);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static int sequentialScans(JsonNode node) {
+        var scans =
+                "Seq Scan".equals(node.path("Node Type").asText())
+                                && "devices".equals(node.path("Relation Name").asText())
+                        ? 1
+                        : 0;
+        for (var child : node.path("Plans")) {
+            scans += sequentialScans(child);
+        }
+        return scans;
+    }
+}
@@ -1 +1 @@
-TRUNCATE TABLE devices RESTART IDENTITY CASCADE;
+TRUNCATE TABLE devices, devices_archive, device_outbox, device_stats RESTART IDENTITY CASCADE;